@@ -0,0 +1,105 @@
+package com.github.karsaig.approvalcrest.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.karsaig.approvalcrest.benchmark.support.BenchmarkTestMeta;
+import com.github.karsaig.approvalcrest.benchmark.support.Storage;
+import com.github.karsaig.approvalcrest.matcher.TestMetaInformation;
+import com.github.karsaig.approvalcrest.matcher.file.AbstractDiagnosingFileMatcher;
+
+/**
+ * Base of the cold start benchmarks, measuring the first assertion in a fresh JVM, class loading and static
+ * initialisation included. Every fork runs a single invocation, so the score is the average of the forks.
+ * <p>
+ * The setup writes the approved files with java.nio only, to keep approvalcrest classes out of the JVM before the
+ * measured assertion. It hashes the file names with the JDK's SHA-1, so the security providers are initialised before
+ * the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public abstract class AbstractColdStartBenchmark {
+
+    protected static final String CONTENT = "cold start";
+
+    private static final String APPROVED_JSON = "{\"id\": 1, \"name\": \"cold start\"}";
+
+    private Path root;
+    protected TestMetaInformation jsonTestMeta;
+    protected TestMetaInformation contentTestMeta;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Storage.DISK.createRoot();
+        String testClassName = getClass().getName();
+        jsonTestMeta = new BenchmarkTestMeta(root, testClassName, "sameJsonAsApproved");
+        contentTestMeta = new BenchmarkTestMeta(root, testClassName, "sameContentAsApproved");
+
+        writeApproved(jsonTestMeta, "json", APPROVED_JSON);
+        writeApproved(contentTestMeta, "content", CONTENT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Storage.DISK.delete(root);
+    }
+
+    private static void writeApproved(TestMetaInformation testMeta, String extension, String content) throws IOException {
+        Path directory = testMeta.getTestClassPath().resolve(hash(testMeta.testClassName()));
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(hash(testMeta.testMethodName()) + "-approved." + extension), content.getBytes(UTF_8));
+    }
+
+    /**
+     * Same name hash as the file matchers use.
+     */
+    private static String hash(String name) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(name.getBytes(UTF_8));
+            StringBuilder result = new StringBuilder();
+            for (byte b : digest) {
+                result.append(String.format("%02x", b));
+            }
+            return result.substring(0, AbstractDiagnosingFileMatcher.NUM_OF_HASH_CHARS);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Bean for the {@code sameBeanAs} and {@code sameJsonAsApproved} entry points.
+     */
+    protected static class Bean {
+        private final int id = 1;
+        private final String name = CONTENT;
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
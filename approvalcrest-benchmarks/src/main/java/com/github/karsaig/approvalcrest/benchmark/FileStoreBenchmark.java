@@ -0,0 +1,125 @@
+package com.github.karsaig.approvalcrest.benchmark;
+
+import static com.github.karsaig.approvalcrest.benchmark.support.ApprovedFiles.DEFAULT_CONFIG;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.karsaig.approvalcrest.benchmark.support.Payloads;
+import com.github.karsaig.approvalcrest.benchmark.support.Storage;
+import com.github.karsaig.approvalcrest.matcher.file.FileStoreMatcherUtils;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Measures the file operations of the approved file lifecycle on a directory tree holding {@link #fileCount} approved
+ * files, laid out like the file matchers do: one directory per test class hash with the method hash files in it.
+ * Every invocation works on the next file of the tree, so the operations are not served by a single hot entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStoreBenchmark {
+
+    private static final int FILES_PER_DIRECTORY = 20;
+    private static final String COMMENT = FileStoreBenchmark.class.getName() + ".fileStore";
+
+    @Param({"JIMFS", "DISK"})
+    private Storage storage;
+
+    @Param({"1000", "10000", "100000"})
+    private int fileCount;
+
+    private FileStoreMatcherUtils fileStoreMatcherUtils;
+    private Path root;
+    private Path[] fileNamesWithPath;
+    private Path[] approvedFiles;
+    private Path[] missingFiles;
+    private String content;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        fileStoreMatcherUtils = new FileStoreMatcherUtils("json", DEFAULT_CONFIG);
+        content = new GsonBuilder().setPrettyPrinting().create().toJson(Payloads.team(1));
+        root = storage.createRoot();
+        fileNamesWithPath = new Path[fileCount];
+        approvedFiles = new Path[fileCount];
+        missingFiles = new Path[fileCount];
+        for (int i = 0; i < fileCount; ++i) {
+            Path directory = root.resolve(hash(i / FILES_PER_DIRECTORY));
+            if (i % FILES_PER_DIRECTORY == 0) {
+                Files.createDirectories(directory);
+            }
+            fileNamesWithPath[i] = directory.resolve(hash(i));
+            approvedFiles[i] = fileStoreMatcherUtils.getApproved(fileNamesWithPath[i]);
+            missingFiles[i] = fileStoreMatcherUtils.getApproved(directory.resolve(hash(fileCount + i)));
+            fileStoreMatcherUtils.overwriteApprovedFile(fileNamesWithPath[i], content, COMMENT);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        storage.delete(root);
+    }
+
+    @Benchmark
+    public String readFile() throws IOException {
+        return fileStoreMatcherUtils.readFile(approvedFiles[nextIndex()]);
+    }
+
+    /**
+     * The probe of {@code AbstractDiagnosingFileMatcher.createNotApprovedFileIfNotExists} for an approved test.
+     */
+    @Benchmark
+    public boolean notExistsApproved() {
+        return Files.notExists(fileStoreMatcherUtils.getApproved(fileNamesWithPath[nextIndex()]));
+    }
+
+    /**
+     * The probe of {@code AbstractDiagnosingFileMatcher.createNotApprovedFileIfNotExists} for a new test.
+     */
+    @Benchmark
+    public boolean notExistsMissing() {
+        return Files.notExists(missingFiles[nextIndex()]);
+    }
+
+    @Benchmark
+    public String createNotApproved() throws IOException {
+        return fileStoreMatcherUtils.createNotApproved(fileNamesWithPath[nextIndex()], content, COMMENT);
+    }
+
+    @Benchmark
+    public String overwriteApprovedFile() throws IOException {
+        return fileStoreMatcherUtils.overwriteApprovedFile(fileNamesWithPath[nextIndex()], content, COMMENT);
+    }
+
+    private int nextIndex() {
+        int result = next;
+        next = result + 1 == fileCount ? 0 : result + 1;
+        return result;
+    }
+
+    private static String hash(int value) {
+        return String.format(Locale.ENGLISH, "%06x", value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.karsaig.approvalcrest.benchmark;
+
+import static com.github.karsaig.approvalcrest.MatcherAssert.assertThat;
+import static com.github.karsaig.approvalcrest.matcher.Matchers.sameBeanAs;
+import static com.github.karsaig.approvalcrest.matcher.Matchers.sameContentAsApproved;
+import static com.github.karsaig.approvalcrest.matcher.Matchers.sameJsonAsApproved;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Time to the first passing assertion of the JUnit 4 approvalcrest entry points in a fresh JVM.
+ */
+public class Junit4ColdStartBenchmark extends AbstractColdStartBenchmark {
+
+    @Benchmark
+    public void firstSameBeanAsPrimitive() {
+        assertThat(1, sameBeanAs(1));
+    }
+
+    @Benchmark
+    public void firstSameBeanAs() {
+        assertThat(new Bean(), sameBeanAs(new Bean()));
+    }
+
+    @Benchmark
+    public void firstSameJsonAsApproved() {
+        assertThat(new Bean(), sameJsonAsApproved(jsonTestMeta));
+    }
+
+    @Benchmark
+    public void firstSameContentAsApproved() {
+        assertThat(CONTENT, sameContentAsApproved(contentTestMeta));
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.karsaig.approvalcrest.benchmark;
+
+import static com.github.karsaig.approvalcrest.benchmark.support.ApprovedFiles.DEFAULT_CONFIG;
+import static com.github.karsaig.approvalcrest.benchmark.support.ApprovedFiles.PASS_ON_CREATE_CONFIG;
+import static com.github.karsaig.approvalcrest.benchmark.support.ApprovedFiles.approveAll;
+import static com.github.karsaig.approvalcrest.benchmark.support.Payloads.teamOfJsonSize;
+import static com.github.karsaig.approvalcrest.util.InMemoryFsUtil.createInMemoryUnixFsWithFileAttributeSupport;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.karsaig.approvalcrest.FieldsIgnorer;
+import com.github.karsaig.approvalcrest.MatcherConfiguration;
+import com.github.karsaig.approvalcrest.benchmark.support.BenchmarkMatcherFactory;
+import com.github.karsaig.approvalcrest.benchmark.support.BenchmarkTestMeta;
+import com.github.karsaig.approvalcrest.matcher.BenchmarkGsonProvider;
+import com.github.karsaig.approvalcrest.matcher.JsonMatcher;
+import com.github.karsaig.approvalcrest.matcher.TestMetaInformation;
+import com.github.karsaig.approvalcrest.testdata.Team;
+import com.github.karsaig.approvalcrest.util.InMemoryFsInfo;
+import com.github.karsaig.approvalcrest.util.InMemoryFsUtil;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+/**
+ * Pushes object graphs from 10KB up to 100MB of JSON through {@link JsonMatcher#matches(Object)} and
+ * {@link FieldsIgnorer#findPaths(Gson, Object, Set, java.util.List, Set)}. Meant to be run with the GC profiler and
+ * {@link com.github.karsaig.approvalcrest.benchmark.support.PeakHeapProfiler}, see
+ * {@link com.github.karsaig.approvalcrest.benchmark.regression.BaselineRegressionCheck}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LargePayloadBenchmark {
+
+    private static final BenchmarkMatcherFactory MATCHER_FACTORY = new BenchmarkMatcherFactory();
+    private static final String IGNORED_PATH = "members.previousAddresses";
+
+    @Param({"10KB", "1MB", "10MB", "100MB"})
+    private String jsonSize;
+
+    private InMemoryFsInfo fileSystem;
+    private TestMetaInformation testMeta;
+    private Team actual;
+    private Gson gson;
+
+    @Setup
+    public void setUp() {
+        fileSystem = createInMemoryUnixFsWithFileAttributeSupport();
+        testMeta = new BenchmarkTestMeta(fileSystem.getTestPath(), LargePayloadBenchmark.class.getName(), "jsonMatcherMatches");
+        actual = teamOfJsonSize(jsonSize);
+        gson = BenchmarkGsonProvider.gson(new MatcherConfiguration());
+
+        MATCHER_FACTORY.jsonMatcher(testMeta, PASS_ON_CREATE_CONFIG).matches(actual);
+        approveAll(fileSystem.getTestPath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        InMemoryFsUtil.close(fileSystem);
+    }
+
+    @Benchmark
+    public void jsonMatcherMatches() {
+        if (!MATCHER_FACTORY.jsonMatcher(testMeta, DEFAULT_CONFIG).matches(actual)) {
+            throw new IllegalStateException("Actual doesn't match the approved file!");
+        }
+    }
+
+    @Benchmark
+    public JsonElement findPaths() {
+        return FieldsIgnorer.findPaths(gson, actual, Collections.singleton(IGNORED_PATH), emptyList(), emptySet());
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.karsaig.approvalcrest.benchmark;
+
+import static com.github.karsaig.approvalcrest.benchmark.support.Payloads.team;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.karsaig.approvalcrest.benchmark.support.BenchmarkAssertImpl;
+import com.github.karsaig.approvalcrest.benchmark.support.BenchmarkMatcherFactory;
+import com.github.karsaig.approvalcrest.benchmark.support.MatcherConfigurator;
+import com.github.karsaig.approvalcrest.matcher.DiagnosingCustomisableMatcher;
+import com.github.karsaig.approvalcrest.testdata.Team;
+
+/**
+ * Measures a passing {@code sameBeanAs} assertion, from matcher creation to the end of {@code assertThat}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SameBeanAsBenchmark {
+
+    private static final BenchmarkAssertImpl ASSERT = new BenchmarkAssertImpl();
+    private static final BenchmarkMatcherFactory MATCHER_FACTORY = new BenchmarkMatcherFactory();
+
+    @Param({"1", "10", "100", "1000"})
+    private int size;
+
+    @Param
+    private MatcherConfigurator configurator;
+
+    private Team expected;
+    private Team actual;
+
+    @Setup
+    public void setUp() {
+        expected = team(size);
+        actual = team(size);
+    }
+
+    @Benchmark
+    public void sameBeanAs() {
+        DiagnosingCustomisableMatcher<Team> matcher = MATCHER_FACTORY.beanMatcher(expected);
+        ASSERT.assertThat(actual, configurator.configure(matcher));
+    }
+}
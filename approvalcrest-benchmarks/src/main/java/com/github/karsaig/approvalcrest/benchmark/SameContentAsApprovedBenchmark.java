@@ -0,0 +1,77 @@
+package com.github.karsaig.approvalcrest.benchmark;
+
+import static com.github.karsaig.approvalcrest.benchmark.support.ApprovedFiles.DEFAULT_CONFIG;
+import static com.github.karsaig.approvalcrest.benchmark.support.ApprovedFiles.PASS_ON_CREATE_CONFIG;
+import static com.github.karsaig.approvalcrest.benchmark.support.ApprovedFiles.approveAll;
+import static com.github.karsaig.approvalcrest.benchmark.support.Payloads.content;
+import static com.github.karsaig.approvalcrest.util.InMemoryFsUtil.createInMemoryUnixFsWithFileAttributeSupport;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.karsaig.approvalcrest.FileMatcherConfig;
+import com.github.karsaig.approvalcrest.benchmark.support.BenchmarkAssertImpl;
+import com.github.karsaig.approvalcrest.benchmark.support.BenchmarkMatcherFactory;
+import com.github.karsaig.approvalcrest.benchmark.support.BenchmarkTestMeta;
+import com.github.karsaig.approvalcrest.matcher.TestMetaInformation;
+import com.github.karsaig.approvalcrest.util.InMemoryFsInfo;
+import com.github.karsaig.approvalcrest.util.InMemoryFsUtil;
+
+/**
+ * Measures a passing {@code sameContentAsApproved} assertion against an already approved file on an in memory file
+ * system.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SameContentAsApprovedBenchmark {
+
+    private static final BenchmarkAssertImpl ASSERT = new BenchmarkAssertImpl();
+    private static final BenchmarkMatcherFactory MATCHER_FACTORY = new BenchmarkMatcherFactory();
+
+    @Param({"1", "10", "100", "1000"})
+    private int size;
+
+    private InMemoryFsInfo fileSystem;
+    private TestMetaInformation testMeta;
+    private String actual;
+
+    @Setup
+    public void setUp() {
+        fileSystem = createInMemoryUnixFsWithFileAttributeSupport();
+        testMeta = new BenchmarkTestMeta(fileSystem.getTestPath(), SameContentAsApprovedBenchmark.class.getName(), "sameContentAsApproved");
+        actual = content(size);
+
+        assertSameContent(PASS_ON_CREATE_CONFIG);
+        approveAll(fileSystem.getTestPath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        InMemoryFsUtil.close(fileSystem);
+    }
+
+    @Benchmark
+    public void sameContentAsApproved() {
+        assertSameContent(DEFAULT_CONFIG);
+    }
+
+    private void assertSameContent(FileMatcherConfig fileMatcherConfig) {
+        ASSERT.assertThat(actual, MATCHER_FACTORY.contentMatcher(testMeta, fileMatcherConfig));
+    }
+}
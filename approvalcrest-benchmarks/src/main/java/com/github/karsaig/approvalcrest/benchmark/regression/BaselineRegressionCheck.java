@@ -0,0 +1,177 @@
+package com.github.karsaig.approvalcrest.benchmark.regression;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.karsaig.approvalcrest.benchmark.LargePayloadBenchmark;
+import com.github.karsaig.approvalcrest.benchmark.support.PeakHeapProfiler;
+
+/**
+ * Runs {@link LargePayloadBenchmark} with the GC and peak heap profilers, and compares ops/s, allocated bytes per
+ * operation and peak heap with a stored baseline. Exits with a non zero status if any of them regressed more than the
+ * tolerance.
+ * <p>
+ * Arguments:
+ * <ul>
+ * <li>{@code --baseline <file>} baseline to compare with, created on the first run (default: {@value #DEFAULT_BASELINE})</li>
+ * <li>{@code --tolerance <ratio>} allowed relative change before failing (default: {@value #DEFAULT_TOLERANCE})</li>
+ * <li>{@code --sizes <list>} comma separated JSON sizes to run (default: every size of the benchmark)</li>
+ * <li>{@code --update-baseline} overwrite the baseline with the current results instead of comparing</li>
+ * </ul>
+ */
+public class BaselineRegressionCheck {
+
+    private static final String DEFAULT_BASELINE = "large-payload-baseline.properties";
+    private static final String DEFAULT_TOLERANCE = "0.10";
+    private static final String SIZE_PARAM = "jsonSize";
+
+    private final Path baseline;
+    private final double tolerance;
+    private final String[] sizes;
+    private final boolean updateBaseline;
+
+    BaselineRegressionCheck(Path baseline, double tolerance, String[] sizes, boolean updateBaseline) {
+        this.baseline = baseline;
+        this.tolerance = tolerance;
+        this.sizes = sizes;
+        this.updateBaseline = updateBaseline;
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path baseline = Paths.get(DEFAULT_BASELINE);
+        double tolerance = Double.parseDouble(DEFAULT_TOLERANCE);
+        String[] sizes = new String[0];
+        boolean updateBaseline = false;
+        for (int i = 0; i < args.length; ++i) {
+            switch (args[i]) {
+                case "--baseline":
+                    baseline = Paths.get(args[++i]);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[++i]);
+                    break;
+                case "--sizes":
+                    sizes = args[++i].split(",");
+                    break;
+                case "--update-baseline":
+                    updateBaseline = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        List<String> regressions = new BaselineRegressionCheck(baseline, tolerance, sizes, updateBaseline).run();
+        if (!regressions.isEmpty()) {
+            System.err.println("Regressions compared to " + baseline + ":");
+            regressions.forEach(r -> System.err.println("  " + r));
+            System.exit(1);
+        }
+    }
+
+    List<String> run() throws RunnerException, IOException {
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.include(LargePayloadBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .addProfiler(PeakHeapProfiler.class);
+        if (sizes.length > 0) {
+            builder.param(SIZE_PARAM, sizes);
+        }
+        Options options = builder.build();
+        Map<String, Double> current = toMetrics(new Runner(options).run());
+        if (current.isEmpty()) {
+            throw new IllegalStateException("No benchmark results, check the benchmark output for errors!");
+        }
+
+        if (updateBaseline || Files.notExists(baseline)) {
+            store(current);
+            System.out.println("Baseline written to " + baseline);
+            return new ArrayList<>();
+        }
+        return compare(load(), current);
+    }
+
+    List<String> compare(Map<String, Double> stored, Map<String, Double> current) {
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double baselineValue = stored.get(entry.getKey());
+            if (baselineValue == null) {
+                continue;
+            }
+            Metric metric = metricOf(entry.getKey());
+            if (metric.isRegression(baselineValue, entry.getValue(), tolerance)) {
+                result.add(String.format(Locale.ENGLISH, "%s: baseline %.2f, current %.2f", entry.getKey(), baselineValue, entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+    static Map<String, Double> toMetrics(Collection<RunResult> runResults) {
+        Map<String, Double> result = new TreeMap<>();
+        for (RunResult runResult : runResults) {
+            String benchmark = runResult.getParams().getBenchmark();
+            String name = benchmark.substring(benchmark.lastIndexOf('.') + 1) + "." + runResult.getParams().getParam(SIZE_PARAM);
+            for (Metric metric : Metric.values()) {
+                Double value = metric.extract(runResult);
+                if (value != null) {
+                    result.put(name + "." + metric.getKey(), value);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Metric metricOf(String key) {
+        for (Metric metric : Metric.values()) {
+            if (key.endsWith("." + metric.getKey())) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException("Unknown metric: " + key);
+    }
+
+    private Map<String, Double> load() throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(baseline, UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, Double> result = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            result.put(key, Double.parseDouble(properties.getProperty(key)));
+        }
+        return result;
+    }
+
+    private void store(Map<String, Double> metrics) throws IOException {
+        Path parent = baseline.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(baseline, UTF_8)) {
+            writer.write("# LargePayloadBenchmark baseline, regenerate with --update-baseline\n");
+            for (Map.Entry<String, Double> entry : metrics.entrySet()) {
+                writer.write(entry.getKey() + "=" + String.format(Locale.ENGLISH, "%.2f", entry.getValue()) + "\n");
+            }
+        }
+    }
+}
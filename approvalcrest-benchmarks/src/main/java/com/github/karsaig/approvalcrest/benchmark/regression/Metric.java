@@ -0,0 +1,63 @@
+package com.github.karsaig.approvalcrest.benchmark.regression;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+
+import com.github.karsaig.approvalcrest.benchmark.support.PeakHeapProfiler;
+
+/**
+ * Metrics tracked by {@link BaselineRegressionCheck}, with the direction in which they regress.
+ */
+enum Metric {
+    THROUGHPUT("ops", false) {
+        @Override
+        Double extract(RunResult runResult) {
+            return runResult.getPrimaryResult().getScore();
+        }
+    },
+    ALLOCATION("allocatedBytesPerOp", true) {
+        @Override
+        Double extract(RunResult runResult) {
+            return secondary(runResult, "gc.alloc.rate.norm");
+        }
+    },
+    PEAK_HEAP("peakRetainedHeapBytes", true) {
+        @Override
+        Double extract(RunResult runResult) {
+            return secondary(runResult, PeakHeapProfiler.PEAK_RETAINED_HEAP_LABEL);
+        }
+    };
+
+    private final String key;
+    private final boolean lowerIsBetter;
+
+    Metric(String key, boolean lowerIsBetter) {
+        this.key = key;
+        this.lowerIsBetter = lowerIsBetter;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * @return the metric from the result, or null if the profiler providing it was not active
+     */
+    abstract Double extract(RunResult runResult);
+
+    boolean isRegression(double baseline, double current, double tolerance) {
+        if (lowerIsBetter) {
+            return current > baseline * (1.0d + tolerance);
+        }
+        return current < baseline * (1.0d - tolerance);
+    }
+
+    private static Double secondary(RunResult runResult, String labelSuffix) {
+        for (Result<?> result : runResult.getSecondaryResults().values()) {
+            if (result.getLabel().endsWith(labelSuffix)) {
+                return result.getScore();
+            }
+        }
+        return null;
+    }
+}
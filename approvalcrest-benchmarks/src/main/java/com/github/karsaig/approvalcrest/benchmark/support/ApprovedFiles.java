@@ -0,0 +1,45 @@
+package com.github.karsaig.approvalcrest.benchmark.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.karsaig.approvalcrest.FileMatcherConfig;
+
+/**
+ * Helpers to get approved files in place before a benchmark measures the steady state of a file based matcher.
+ */
+public class ApprovedFiles {
+
+    public static final FileMatcherConfig DEFAULT_CONFIG = new FileMatcherConfig(false, false, false, false, false);
+    public static final FileMatcherConfig PASS_ON_CREATE_CONFIG = new FileMatcherConfig(false, true, false, false, false);
+
+    private static final String NOT_APPROVED = "-not-approved.";
+    private static final String APPROVED = "-approved.";
+
+    private ApprovedFiles() {
+    }
+
+    /**
+     * Renames every not approved file under the given directory to its approved name, like a developer would.
+     *
+     * @param root directory to search for not approved files
+     * @return number of approved files
+     */
+    public static int approveAll(Path root) {
+        try (Stream<Path> files = Files.walk(root)) {
+            List<Path> notApproved = files
+                    .filter(p -> p.getFileName().toString().contains(NOT_APPROVED))
+                    .collect(Collectors.toList());
+            for (Path file : notApproved) {
+                Files.move(file, file.resolveSibling(file.getFileName().toString().replace(NOT_APPROVED, APPROVED)));
+            }
+            return notApproved.size();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to approve files under " + root, e);
+        }
+    }
+}
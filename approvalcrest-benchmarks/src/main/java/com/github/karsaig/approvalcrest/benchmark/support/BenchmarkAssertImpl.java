@@ -0,0 +1,18 @@
+package com.github.karsaig.approvalcrest.benchmark.support;
+
+import org.hamcrest.Matcher;
+
+import com.github.karsaig.approvalcrest.matcher.AssertImpl;
+
+/**
+ * Exposes {@link AssertImpl#assertThat} to the benchmarks, so they exercise the same code path as the
+ * JUnit 4 and JUnit 5 {@code MatcherAssert} entry points.
+ */
+public class BenchmarkAssertImpl extends AssertImpl {
+
+    public <T> void assertThat(T actual, Matcher<? super T> matcher) {
+        assertThat(null, actual, matcher, (message, description) -> {
+            throw new AssertionError(message);
+        });
+    }
+}
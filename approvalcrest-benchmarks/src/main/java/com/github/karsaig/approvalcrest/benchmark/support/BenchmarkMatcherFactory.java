@@ -0,0 +1,26 @@
+package com.github.karsaig.approvalcrest.benchmark.support;
+
+import com.github.karsaig.approvalcrest.FileMatcherConfig;
+import com.github.karsaig.approvalcrest.matcher.ContentMatcher;
+import com.github.karsaig.approvalcrest.matcher.DiagnosingCustomisableMatcher;
+import com.github.karsaig.approvalcrest.matcher.JsonMatcher;
+import com.github.karsaig.approvalcrest.matcher.MatcherFactory;
+import com.github.karsaig.approvalcrest.matcher.TestMetaInformation;
+
+public class BenchmarkMatcherFactory extends MatcherFactory {
+
+    @Override
+    public <T> DiagnosingCustomisableMatcher<T> beanMatcher(T expected) {
+        return super.beanMatcher(expected);
+    }
+
+    @Override
+    public <T> JsonMatcher<T> jsonMatcher(TestMetaInformation testMetaInformation, FileMatcherConfig fileMatcherConfig) {
+        return super.jsonMatcher(testMetaInformation, fileMatcherConfig);
+    }
+
+    @Override
+    public <T> ContentMatcher<T> contentMatcher(TestMetaInformation testMetaInformation, FileMatcherConfig fileMatcherConfig) {
+        return super.contentMatcher(testMetaInformation, fileMatcherConfig);
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.karsaig.approvalcrest.benchmark.support;
+
+import java.nio.file.Path;
+
+import com.github.karsaig.approvalcrest.matcher.TestMetaInformation;
+
+/**
+ * Fixed {@link TestMetaInformation}, benchmarks have no test method to derive file names from.
+ */
+public class BenchmarkTestMeta implements TestMetaInformation {
+
+    private final Path testClassPath;
+    private final String testClassName;
+    private final String testMethodName;
+
+    public BenchmarkTestMeta(Path testClassPath, String testClassName, String testMethodName) {
+        this.testClassPath = testClassPath;
+        this.testClassName = testClassName;
+        this.testMethodName = testMethodName;
+    }
+
+    @Override
+    public Path getTestClassPath() {
+        return testClassPath;
+    }
+
+    @Override
+    public String testClassName() {
+        return testClassName;
+    }
+
+    @Override
+    public String testMethodName() {
+        return testMethodName;
+    }
+
+    @Override
+    public Path getApprovedDirectory() {
+        return testClassPath;
+    }
+}
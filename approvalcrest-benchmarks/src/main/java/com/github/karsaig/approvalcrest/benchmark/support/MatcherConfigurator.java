@@ -0,0 +1,51 @@
+package com.github.karsaig.approvalcrest.benchmark.support;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import com.github.karsaig.approvalcrest.matcher.CustomisableMatcher;
+import com.github.karsaig.approvalcrest.testdata.Address;
+
+/**
+ * Matcher configurations benchmarked against the {@link Payloads#team(int)} payload.
+ */
+public enum MatcherConfigurator {
+    DEFAULT {
+        @Override
+        public <T, U extends CustomisableMatcher<T, U>> U configure(U matcher) {
+            return matcher;
+        }
+    },
+    IGNORE_PATH {
+        @Override
+        public <T, U extends CustomisableMatcher<T, U>> U configure(U matcher) {
+            return matcher.ignoring("lead.previousAddresses", "members.currentAddress");
+        }
+    },
+    IGNORE_TYPE {
+        @Override
+        public <T, U extends CustomisableMatcher<T, U>> U configure(U matcher) {
+            return matcher.ignoring(Address.class);
+        }
+    },
+    IGNORE_PATTERN {
+        @Override
+        public <T, U extends CustomisableMatcher<T, U>> U configure(U matcher) {
+            return matcher.ignoring(is("email"));
+        }
+    },
+    SORT {
+        @Override
+        public <T, U extends CustomisableMatcher<T, U>> U configure(U matcher) {
+            return matcher.sortField("members", "lead.previousAddresses");
+        }
+    },
+    CUSTOM_MATCHER {
+        @Override
+        public <T, U extends CustomisableMatcher<T, U>> U configure(U matcher) {
+            return matcher.with("name", startsWith("TeamName"));
+        }
+    };
+
+    public abstract <T, U extends CustomisableMatcher<T, U>> U configure(U matcher);
+}
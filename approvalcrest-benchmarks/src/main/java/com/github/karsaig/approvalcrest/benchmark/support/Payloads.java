@@ -0,0 +1,87 @@
+package com.github.karsaig.approvalcrest.benchmark.support;
+
+import static com.github.karsaig.approvalcrest.util.TestDataGenerator.generatePerson;
+import static com.github.karsaig.approvalcrest.util.TestDataGenerator.generateTeam;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.github.karsaig.approvalcrest.testdata.Person;
+import com.github.karsaig.approvalcrest.testdata.Team;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Deterministic payloads for the benchmarks. Calling the same method twice with the same size returns equal, but not
+ * identical object graphs, so expected and actual never share instances.
+ */
+public class Payloads {
+
+    private static final int SAMPLE_SIZE = 100;
+
+    private Payloads() {
+    }
+
+    /**
+     * Returns a {@link Team} with the given number of members, every member is built by
+     * {@link com.github.karsaig.approvalcrest.util.TestDataGenerator#generatePerson(long)}.
+     *
+     * @param numberOfMembers size of the member list
+     * @return a new {@link Team}
+     */
+    public static Team team(int numberOfMembers) {
+        Team result = generateTeam(1L);
+        List<Person> members = new ArrayList<>(numberOfMembers);
+        for (int i = 0; i < numberOfMembers; ++i) {
+            members.add(generatePerson(100L + i));
+        }
+        result.setMembers(members);
+        return result;
+    }
+
+    /**
+     * Returns multi-line text with one line per member of {@link #team(int)}.
+     *
+     * @param numberOfLines number of lines
+     * @return the text
+     */
+    public static String content(int numberOfLines) {
+        StringBuilder result = new StringBuilder();
+        for (Person member : team(numberOfLines).getMembers()) {
+            result.append(member.getFirstName()).append(' ')
+                    .append(member.getLastName()).append(' ')
+                    .append(member.getEmail()).append(' ')
+                    .append(member.getBirthDate()).append(' ')
+                    .append(member.getCurrentAddress().getCity()).append('\n');
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns a {@link Team} which serializes to roughly the given number of bytes of pretty printed JSON.
+     *
+     * @param size human readable size, like 10KB, 1MB or 100MB
+     * @return a new {@link Team}
+     */
+    public static Team teamOfJsonSize(String size) {
+        long bytes = parseSize(size);
+        int sampleBytes = new GsonBuilder().setPrettyPrinting().create().toJson(team(SAMPLE_SIZE)).length();
+        long numberOfMembers = Math.max(1L, bytes * SAMPLE_SIZE / sampleBytes);
+        return team(Math.toIntExact(numberOfMembers));
+    }
+
+    static long parseSize(String size) {
+        String normalized = size.trim().toUpperCase(Locale.ENGLISH);
+        if (normalized.endsWith("GB")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 2)) << 30;
+        }
+        if (normalized.endsWith("MB")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 2)) << 20;
+        }
+        if (normalized.endsWith("KB")) {
+            return Long.parseLong(normalized.substring(0, normalized.length() - 2)) << 10;
+        }
+        return Long.parseLong(normalized);
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.karsaig.approvalcrest.benchmark.support;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+/**
+ * Reports the peak heap usage of each iteration as the {@value #PEAK_HEAP_LABEL} secondary result, and the peak of the
+ * pools holding objects that survived a collection as {@value #PEAK_RETAINED_HEAP_LABEL}. The values are the sums of
+ * the per pool peaks, so they are upper bounds of the real peaks, but stable enough to compare releases. The eden
+ * space fills up to its capacity before every young collection, so only the retained value follows the size of the
+ * live object graph.
+ */
+public class PeakHeapProfiler implements InternalProfiler {
+
+    public static final String PEAK_HEAP_LABEL = "peak.heap";
+    public static final String PEAK_RETAINED_HEAP_LABEL = "peak.heap.retained";
+
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .collect(Collectors.toList());
+
+    @Override
+    public String getDescription() {
+        return "Peak heap usage per iteration";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams, IterationResult result) {
+        long peak = 0L;
+        long retainedPeak = 0L;
+        for (MemoryPoolMXBean pool : heapPools) {
+            long poolPeak = pool.getPeakUsage().getUsed();
+            peak += poolPeak;
+            if (!pool.getName().contains("Eden")) {
+                retainedPeak += poolPeak;
+            }
+        }
+        return Arrays.asList(
+                new ScalarResult(PEAK_HEAP_LABEL, peak, "bytes", AggregationPolicy.MAX),
+                new ScalarResult(PEAK_RETAINED_HEAP_LABEL, retainedPeak, "bytes", AggregationPolicy.MAX));
+    }
+}
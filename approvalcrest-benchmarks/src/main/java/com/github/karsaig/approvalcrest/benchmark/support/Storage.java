@@ -0,0 +1,78 @@
+package com.github.karsaig.approvalcrest.benchmark.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.github.karsaig.approvalcrest.util.InMemoryFsUtil;
+
+/**
+ * Where the file based benchmarks keep their files. The disk directory can be moved, for example to a network mounted
+ * workspace, with the {@value #DISK_DIRECTORY_PROPERTY} system property of the forked JVM, it defaults to
+ * {@code java.io.tmpdir}.
+ */
+public enum Storage {
+    JIMFS {
+        @Override
+        public Path createRoot() {
+            return InMemoryFsUtil.createInMemoryUnixFsWithFileAttributeSupport().getTestPath();
+        }
+
+        @Override
+        public void delete(Path root) {
+            try {
+                root.getFileSystem().close();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to close in memory file system", e);
+            }
+        }
+    },
+    DISK {
+        @Override
+        public Path createRoot() {
+            Path parent = Paths.get(System.getProperty(DISK_DIRECTORY_PROPERTY, System.getProperty("java.io.tmpdir")));
+            try {
+                Files.createDirectories(parent);
+                return Files.createTempDirectory(parent, "approvalcrest-benchmark");
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to create benchmark directory under " + parent, e);
+            }
+        }
+
+        @Override
+        public void delete(Path root) {
+            try (Stream<Path> files = Files.walk(root)) {
+                files.sorted(Comparator.reverseOrder()).forEach(Storage::deleteFile);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to delete " + root, e);
+            }
+        }
+    };
+
+    public static final String DISK_DIRECTORY_PROPERTY = "approvalcrest.benchmark.dir";
+
+    /**
+     * Creates an empty directory for a benchmark trial.
+     *
+     * @return the new directory
+     */
+    public abstract Path createRoot();
+
+    /**
+     * Releases the directory returned by {@link #createRoot()} with all of its content.
+     *
+     * @param root directory returned by {@link #createRoot()}
+     */
+    public abstract void delete(Path root);
+
+    private static void deleteFile(Path path) {
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to delete " + path, e);
+        }
+    }
+}
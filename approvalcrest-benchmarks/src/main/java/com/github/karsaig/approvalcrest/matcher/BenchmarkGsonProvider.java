@@ -0,0 +1,20 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import java.util.Collections;
+
+import com.github.karsaig.approvalcrest.MatcherConfiguration;
+
+import com.google.gson.Gson;
+
+/**
+ * Gives the benchmarks the same {@link Gson} the matchers use, {@link GsonProvider} itself is package private.
+ */
+public class BenchmarkGsonProvider {
+
+    private BenchmarkGsonProvider() {
+    }
+
+    public static Gson gson(MatcherConfiguration matcherConfiguration) {
+        return GsonProvider.gson(matcherConfiguration, Collections.emptySet());
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.karsaig.approvalcrest;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class whose instances are compared by the matchers, so the {@code approvalcrest-processor} annotation
+ * processor generates an {@link ApprovedDtoAccessor} for it at compile time. The matchers write the annotated class
+ * with its accessor in place of reading its fields by reflection, the JSON written is the same.
+ * <p>
+ * The generated accessor reads the fields directly, or through their getters when they are private, so every non static,
+ * non transient field of the class and its superclasses has to be visible from the package of the class or have a
+ * visible getter. Classes with type parameters are not supported.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ApprovedDto {
+}
@@ -0,0 +1,177 @@
+package com.github.karsaig.approvalcrest;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the values of the serialised fields of an {@link ApprovedDto} class without reflection. Implementations are
+ * generated by the {@code approvalcrest-processor} annotation processor next to the annotated class, named after its
+ * binary name with {@code '$'} replaced by {@code '_'} and {@link #SUFFIX} appended.
+ * <p>
+ * The accessor of a class is looked up once and kept in a {@link ClassValue}. The processor lists the accessors it
+ * generates in the {@link #INDEX} resource, so whether there are any is known without looking at any class.
+ *
+ * @param <T> the annotated class
+ */
+public abstract class ApprovedDtoAccessor<T> {
+
+    /**
+     * Appended to the name of the annotated class to get the name of its accessor.
+     */
+    public static final String SUFFIX = "_ApprovedDtoAccessor";
+
+    /**
+     * The resource listing the binary names of the accessors generated by a compilation, one per line.
+     */
+    public static final String INDEX = "META-INF/approvalcrest/approved-dto-accessors";
+
+    private static final ClassValue<Optional<ApprovedDtoAccessor<?>>> ACCESSORS = new ClassValue<Optional<ApprovedDtoAccessor<?>>>() {
+        @Override
+        protected Optional<ApprovedDtoAccessor<?>> computeValue(Class<?> type) {
+            if (!type.isAnnotationPresent(ApprovedDto.class)) {
+                return Optional.empty();
+            }
+            try {
+                Class<?> accessorClass = Class.forName(getAccessorName(type), true, type.getClassLoader());
+                return Optional.of((ApprovedDtoAccessor<?>) accessorClass.getConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(type.getName() + " is annotated with @ApprovedDto, but its accessor "
+                        + getAccessorName(type) + " was not generated, is approvalcrest-processor on the annotation processor path?", e);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create the accessor of " + type.getName(), e);
+            }
+        }
+    };
+
+    private final List<Property> properties;
+
+    /**
+     * @param type       the annotated class
+     * @param properties the serialised fields, their declaring classes given by their distance from the annotated class
+     */
+    protected ApprovedDtoAccessor(Class<T> type, Property... properties) {
+        List<Property> resolved = new ArrayList<>(properties.length);
+        for (Property property : properties) {
+            Class<?> declaringClass = type;
+            for (int i = 0; i < property.declaringClassLevel; ++i) {
+                declaringClass = declaringClass.getSuperclass();
+            }
+            resolved.add(new Property(property.fieldName, property.serializedName, property.declaringClassLevel, declaringClass, property.type));
+        }
+        this.properties = Collections.unmodifiableList(resolved);
+    }
+
+    /**
+     * @return true if an {@link #INDEX} of generated accessors is on the class path, looked up once
+     */
+    public static boolean areAnyGenerated() {
+        return Index.PRESENT;
+    }
+
+    /**
+     * @param type the class to get the accessor of
+     * @return the generated accessor of the class or null if the class is not annotated with {@link ApprovedDto}
+     * @throws IllegalStateException if the class is annotated, but its accessor is missing
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ApprovedDtoAccessor<T> of(Class<T> type) {
+        return (ApprovedDtoAccessor<T>) ACCESSORS.get(type).orElse(null);
+    }
+
+    /**
+     * @param type the annotated class
+     * @return the binary name of the accessor generated for the class
+     */
+    public static String getAccessorName(Class<?> type) {
+        String name = type.getName();
+        int packageEnd = name.lastIndexOf('.') + 1;
+        return name.substring(0, packageEnd) + name.substring(packageEnd).replace('$', '_') + SUFFIX;
+    }
+
+    /**
+     * @return the serialised fields of the class and its superclasses, in the order of their JSON names
+     */
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @param object the object to read the fields of
+     * @return the values of the fields, in the order of {@link #getProperties()}
+     */
+    public abstract Object[] read(T object);
+
+    /**
+     * @param fieldName           the name of the field
+     * @param serializedName      the value of the field's {@code SerializedName} annotation or null if it has none
+     * @param declaringClassLevel 0 if the field is declared by the annotated class, 1 if by its superclass and so on
+     * @param type                the type of the field
+     * @return the field, to be passed to the constructor
+     */
+    protected static Property property(String fieldName, String serializedName, int declaringClassLevel, Type type) {
+        return new Property(fieldName, serializedName, declaringClassLevel, null, type);
+    }
+
+    private static final class Index {
+        private static final boolean PRESENT = isOnClassPath();
+
+        /**
+         * Looks with the class loader of approvalcrest and the context class loader, the generated accessors can be
+         * loaded by either. If the class path can't be read, the accessors are looked for.
+         */
+        private static boolean isOnClassPath() {
+            try {
+                ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+                return ApprovedDtoAccessor.class.getClassLoader().getResources(INDEX).hasMoreElements()
+                        || (contextClassLoader != null && contextClassLoader.getResources(INDEX).hasMoreElements());
+            } catch (IOException e) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * A serialised field as the annotation processor saw it.
+     */
+    public static final class Property {
+        private final String fieldName;
+        private final String serializedName;
+        private final int declaringClassLevel;
+        private final Class<?> declaringClass;
+        private final Type type;
+
+        private Property(String fieldName, String serializedName, int declaringClassLevel, Class<?> declaringClass, Type type) {
+            this.fieldName = fieldName;
+            this.serializedName = serializedName;
+            this.declaringClassLevel = declaringClassLevel;
+            this.declaringClass = declaringClass;
+            this.type = type;
+        }
+
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        /**
+         * @return the value of the field's {@code SerializedName} annotation or null if it has none
+         */
+        public String getSerializedName() {
+            return serializedName;
+        }
+
+        public Class<?> getDeclaringClass() {
+            return declaringClass;
+        }
+
+        /**
+         * @return the type of the field, with the type variables of the superclasses resolved
+         */
+        public Type getType() {
+            return type;
+        }
+    }
+}
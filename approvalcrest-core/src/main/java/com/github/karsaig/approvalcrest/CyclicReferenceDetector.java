@@ -9,9 +9,7 @@
  */
 package com.github.karsaig.approvalcrest;
 
-import static java.lang.reflect.Modifier.isStatic;
 import static java.util.Collections.newSetFromMap;
-import static org.apache.commons.lang3.ClassUtils.isPrimitiveOrWrapper;
 
 import java.io.Closeable;
 import java.lang.reflect.Field;
@@ -20,11 +18,10 @@ import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
 
-import org.hamcrest.Matcher;
-
 import com.gilecode.reflection.ReflectionAccessUtils;
 import com.gilecode.reflection.ReflectionAccessor;
 
@@ -36,7 +33,7 @@ public class CyclicReferenceDetector {
 
     private Set<Object> nodesInPaths = newSetFromMap(new IdentityHashMap<>());
     private Set<Object> objectsWithCircularReferences = newSetFromMap(new IdentityHashMap<>());
-    private ReflectionAccessor accessor = ReflectionAccessUtils.getReflectionAccessor();
+    private ReflectionAccessor accessor;
 
     /**
      * Returns a set of classes that have circular reference.
@@ -81,16 +78,18 @@ public class CyclicReferenceDetector {
             return;
         }
 
-        for (Field field : clazz.getDeclaredFields()) {
-            accessor.makeAccessible(field);
+        if (Records.isRecord(clazz)) {
+            detectCircularReferenceOnFieldsReadAtOnce(object, clazz, Records.getComponentReader(clazz), matcherConfiguration);
+        } else if (matcherConfiguration.isReadFieldsWithGeneratedAccessors()) {
+            detectCircularReferenceOnFieldsReadAtOnce(object, clazz, FieldReader.ofDeclaredFields(clazz), matcherConfiguration);
+        } else {
+            for (Field field : matcherConfiguration.getIgnoreRules().getFieldsToVisit(clazz)) {
+                accessor().makeAccessible(field);
 
-            if (!isStatic(field.getModifiers())) {
                 try {
-                    if (!isFieldnameIgnored(field, matcherConfiguration.getPatternsToIgnore())) {
-                        Object fieldValue = field.get(object);
-                        if (fieldValue != null) {
-                            detectCircularReferenceOnObject(fieldValue, matcherConfiguration);
-                        }
+                    Object fieldValue = field.get(object);
+                    if (fieldValue != null) {
+                        detectCircularReferenceOnObject(fieldValue, matcherConfiguration);
                     }
                 } catch (IllegalAccessException e) {
                     throw new RuntimeException(e);
@@ -100,13 +99,30 @@ public class CyclicReferenceDetector {
         detectCircularReferencesFromTheSuperClass(object, clazz, matcherConfiguration);
     }
 
-    private boolean isFieldnameIgnored(Field field, List<Matcher<String>> patternsToIgnore) {
-        for (Matcher<String> matcher : patternsToIgnore) {
-            if (matcher.matches(field.getName())) {
-                return true;
+    /**
+     * Reads every non static field declared by the class at once with the {@link FieldReader}, the generated accessor of
+     * the class or the accessors of the components of a record, and visits the values of the fields not ignored, in
+     * declaration order.
+     */
+    private void detectCircularReferenceOnFieldsReadAtOnce(Object object, Class<?> clazz, FieldReader reader, MatcherConfiguration matcherConfiguration) {
+        IgnoreRules ignoreRules = matcherConfiguration.getIgnoreRules();
+        List<Field> fields = reader.getFields();
+        Object[] fieldValues = reader.read(object);
+        for (int i = 0; i < fieldValues.length; ++i) {
+            if (fieldValues[i] != null && !ignoreRules.isFieldIgnored(clazz, fields.get(i).getName())) {
+                detectCircularReferenceOnObject(fieldValues[i], matcherConfiguration);
             }
         }
-        return false;
+    }
+
+    /**
+     * The accessor is only needed once a field is read, graphs of nulls, primitives and Strings never initialise it.
+     */
+    private ReflectionAccessor accessor() {
+        if (accessor == null) {
+            accessor = ReflectionAccessUtils.getReflectionAccessor();
+        }
+        return accessor;
     }
 
     /**
@@ -118,7 +134,13 @@ public class CyclicReferenceDetector {
      */
     @SuppressWarnings({"unchecked", "rawtypes"})
     private void detectCircularReferenceOnObject(Object object, MatcherConfiguration matcherConfiguration) {
-        if (isIgnoredType(object, matcherConfiguration)) {
+        if (isIgnoredType(object, matcherConfiguration) || Records.isAcyclicByConstruction(object.getClass())) {
+            return;
+        }
+
+        ProxyRules proxyRules = matcherConfiguration.getProxyRules();
+        if (proxyRules.isProxy(object.getClass())) {
+            detectCircularReferenceOnTheTargetOfAProxy(proxyRules.unwrap(object), matcherConfiguration);
             return;
         }
 
@@ -140,6 +162,8 @@ public class CyclicReferenceDetector {
         } else if (object instanceof Map) {
             nodesInPaths.add(object);
             detectCircularReferencesFromObjectsInAMap((Map) object, matcherConfiguration);
+        } else if (object instanceof Optional) {
+            detectCircularReferenceOnTheValueOfAnOptional((Optional<Object>) object, matcherConfiguration);
         }
 
         if (isValid) {
@@ -150,10 +174,8 @@ public class CyclicReferenceDetector {
     }
 
     private boolean isIgnoredType(Object object, MatcherConfiguration matcherConfiguration) {
-        for (Class<?> clazz : matcherConfiguration.getTypesToIgnore()) {
-            if (clazz.isInstance(object)) {
-                return true;
-            }
+        if (matcherConfiguration.getIgnoreRules().isSubtypeOfIgnoredType(object.getClass())) {
+            return true;
         }
 
         for (Function<Object, Boolean> actual : matcherConfiguration.getSkipCircularReferenceCheck()) {
@@ -183,6 +205,33 @@ public class CyclicReferenceDetector {
         }
     }
 
+    /**
+     * Detects circular references on the object a proxy was unwrapped to. A proxy which is not unwrapped is not looked
+     * into, reading its fields could load it.
+     *
+     * @param target the object the proxy was unwrapped to, null if it wasn't unwrapped
+     */
+    private void detectCircularReferenceOnTheTargetOfAProxy(Object target, MatcherConfiguration matcherConfiguration) {
+        if (target != null) {
+            detectCircularReferenceOnObject(target, matcherConfiguration);
+        }
+    }
+
+    /**
+     * Detects circular references on the value of an {@link Optional}, which is read with {@link Optional#orElse(Object)}
+     * instead of reflecting on the private field of the JDK.
+     *
+     * @param optional the {@link Optional} with the value to check for cyclic references on
+     */
+    private void detectCircularReferenceOnTheValueOfAnOptional(Optional<Object> optional, MatcherConfiguration matcherConfiguration) {
+        Object value = optional.orElse(null);
+        if (value != null) {
+            nodesInPaths.add(optional);
+            detectCircularReferenceOnObject(value, matcherConfiguration);
+            nodesInPaths.remove(optional);
+        }
+    }
+
     /**
      * Detects circular references on {@link Map}s, i.e HashMap, TreeMap, etc.
      *
@@ -207,19 +256,17 @@ public class CyclicReferenceDetector {
     }
 
     /**
-     * Checks to see if the given object is primitive or wrapper class, {@link String}, {@link Class}, instance of {@link Iterable},
-     * instance of {@link Map} or instance of {@link Enum}.
+     * Checks to see if the given object is of one of the {@link LeafTypes}, instance of {@link Iterable}, instance of
+     * {@link Map} or instance of {@link Optional}.
      *
      * @param object The object to validate
-     * @return true if the object is not primitive/wrapper class and not an instance of
-     * {@link String}, {@link Iterable}, {@link Map} or {@link Enum})
+     * @return true if the object is not of a leaf type and not an instance of {@link Iterable}, {@link Map} or
+     * {@link Optional}
      */
     private boolean validateAnObject(Object object) {
-        return !isPrimitiveOrWrapper(object.getClass())
-                && object.getClass() != String.class
-                && object.getClass() != Class.class
+        return !LeafTypes.isLeaf(object.getClass())
                 && !(object instanceof Iterable)
                 && !(object instanceof Map)
-                && !(object instanceof Enum);
+                && !(object instanceof Optional);
     }
 }
\ No newline at end of file
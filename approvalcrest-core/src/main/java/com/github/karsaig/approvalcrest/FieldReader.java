@@ -0,0 +1,170 @@
+package com.github.karsaig.approvalcrest;
+
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isStatic;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.gilecode.reflection.ReflectionAccessUtils;
+import com.gilecode.reflection.ReflectionAccessor;
+
+/**
+ * Reads the values of a list of fields of an object with a single method handle, generated once from the getters of the
+ * fields or the accessors of record components, in place of calling {@link Field#get(Object)} for each of them.
+ * <p>
+ * The readers of the non static fields declared by a class are kept in a {@link ClassValue}, so they are generated once
+ * per class.
+ */
+public final class FieldReader {
+
+    /**
+     * Method handles take at most 255 arguments, the values of more fields are collected by several handles.
+     */
+    private static final int MAX_FIELDS_PER_HANDLE = 250;
+
+    private static final ClassValue<FieldReader> DECLARED_FIELD_READERS = new ClassValue<FieldReader>() {
+        @Override
+        protected FieldReader computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (!isStatic(field.getModifiers())) {
+                    fields.add(field);
+                }
+            }
+            return of(fields);
+        }
+    };
+
+    private final List<Field> fields;
+    private final MethodHandle[] readers;
+
+    private FieldReader(List<Field> fields, MethodHandle[] readers) {
+        this.fields = fields;
+        this.readers = readers;
+    }
+
+    /**
+     * @param type the class to read the fields of
+     * @return the reader of the non static fields declared by the class, in declaration order
+     */
+    public static FieldReader ofDeclaredFields(Class<?> type) {
+        return DECLARED_FIELD_READERS.get(type);
+    }
+
+    /**
+     * Generates a reader of the given fields, which are made accessible.
+     *
+     * @param fields the non static fields to read
+     * @return the reader of the fields, in the given order
+     */
+    public static FieldReader of(List<Field> fields) {
+        ReflectionAccessor accessor = ReflectionAccessUtils.getReflectionAccessor();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<MethodHandle> getters = new ArrayList<>(fields.size());
+        try {
+            for (Field field : fields) {
+                accessor.makeAccessible(field);
+                getters.add(lookup.unreflectGetter(field).asType(methodType(Object.class, Object.class)));
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return of(fields, getters);
+    }
+
+    /**
+     * Generates a reader of the given component fields of a record, which calls the accessor methods of the components
+     * in place of reading the fields, like the canonical way of reading a record.
+     *
+     * @param fields the component fields to read, see {@link Records#getComponentFields(Class)}
+     * @return the reader of the components, in the order of the given fields
+     */
+    public static FieldReader ofRecordComponents(List<Field> fields) {
+        List<Method> componentAccessors = new ArrayList<>(fields.size());
+        try {
+            for (Field field : fields) {
+                componentAccessors.add(field.getDeclaringClass().getDeclaredMethod(field.getName()));
+            }
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+        return ofAccessors(fields, componentAccessors);
+    }
+
+    /**
+     * Generates a reader of the given fields, which calls the given accessor methods, made accessible, in place of
+     * reading the fields.
+     *
+     * @param fields    the fields to read
+     * @param accessors the instance methods without parameters returning the values of the fields, in the same order
+     * @return the reader of the fields, in the given order
+     */
+    public static FieldReader ofAccessors(List<Field> fields, List<Method> accessors) {
+        ReflectionAccessor accessor = ReflectionAccessUtils.getReflectionAccessor();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<MethodHandle> getters = new ArrayList<>(accessors.size());
+        try {
+            for (Method method : accessors) {
+                accessor.makeAccessible(method);
+                getters.add(lookup.unreflect(method).asType(methodType(Object.class, Object.class)));
+            }
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return of(fields, getters);
+    }
+
+    private static FieldReader of(List<Field> fields, List<MethodHandle> getters) {
+        int handles = Math.max(1, (getters.size() + MAX_FIELDS_PER_HANDLE - 1) / MAX_FIELDS_PER_HANDLE);
+        MethodHandle[] readers = new MethodHandle[handles];
+        for (int i = 0; i < handles; ++i) {
+            int from = i * MAX_FIELDS_PER_HANDLE;
+            readers[i] = reader(getters.subList(from, Math.min(from + MAX_FIELDS_PER_HANDLE, getters.size())));
+        }
+        return new FieldReader(Collections.unmodifiableList(new ArrayList<>(fields)), readers);
+    }
+
+    /**
+     * Combines the getters into a handle passing the object to each of them and collecting their values to an array.
+     */
+    private static MethodHandle reader(List<MethodHandle> getters) {
+        MethodHandle collector = MethodHandles.identity(Object[].class).asCollector(Object[].class, getters.size());
+        MethodHandle collectingValues = MethodHandles.filterArguments(collector, 0, getters.toArray(new MethodHandle[0]));
+        return MethodHandles.permuteArguments(collectingValues, methodType(Object[].class, Object.class), new int[getters.size()]);
+    }
+
+    /**
+     * @return the fields read, in the order of their values
+     */
+    public List<Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * @param object the object to read the fields of
+     * @return the values of the fields, in the order of the fields
+     */
+    public Object[] read(Object object) {
+        try {
+            if (readers.length == 1) {
+                return (Object[]) readers[0].invokeExact(object);
+            }
+            Object[] values = new Object[fields.size()];
+            for (int i = 0; i < readers.length; ++i) {
+                Object[] chunk = (Object[]) readers[i].invokeExact(object);
+                System.arraycopy(chunk, 0, values, i * MAX_FIELDS_PER_HANDLE, chunk.length);
+            }
+            return values;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -13,7 +13,6 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import org.hamcrest.Matcher;
 
 import java.util.ArrayList;
@@ -21,6 +20,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -34,16 +34,14 @@ import static java.util.Arrays.asList;
  * Responsible for traversing the Json tree and ignore the specified set of field paths.
  */
 public class FieldsIgnorer {
-    public static final String MARKER = "!_TO_BE_SORTED_!";
     private static final String PATH_SEPARATOR_PATTERN = Pattern.quote(".");
 
     public static JsonElement findPaths(Gson gson, Object object, Set<String> pathsToFind, List<Matcher<String>> fieldMatchersToSort, Set<String> pathsToSort) {
-        JsonElement jsonElement = JsonParser.parseString(gson.toJson(object));
+        SortMarkingJsonTreeWriter tree = SortMarkingJsonTreeWriter.toSortedJsonTree(gson, object, pathsToFind);
 
-        JsonElement filteredJson = findPaths(jsonElement, pathsToFind);
-        sortJsonFields(filteredJson, true);
-        applySorting(filteredJson, pathsToSort, fieldMatchersToSort, true);
-        if (object != null && (Set.class.isAssignableFrom(object.getClass()) || Map.class.isAssignableFrom(object.getClass()))) {
+        JsonElement filteredJson = findPaths(tree.get(), pathsToFind);
+        applySorting(filteredJson, tree.getArraysToSort(), tree.getReusedElements(), pathsToSort, fieldMatchersToSort, true);
+        if (object != null && filteredJson.isJsonArray() && (Set.class.isAssignableFrom(object.getClass()) || Map.class.isAssignableFrom(object.getClass()))) {
             sortJsonArray(filteredJson.getAsJsonArray());
             return filteredJson;
         }
@@ -90,23 +88,51 @@ public class FieldsIgnorer {
                 if (jsonElement.isJsonObject()) {
                     JsonElement child = jsonElement.getAsJsonObject().get(field);
                     if (child == null) {
-                        child = jsonElement.getAsJsonObject().get(MARKER + field);
-                        if (child == null) {
-                            return;
-                        }
-                        List<String> tail = pathSegments.subList(1, pathSegments.size());
-                        findPath(child, pathToFind, tail);
-                    } else {
-                        List<String> tail = pathSegments.subList(1, pathSegments.size());
-                        findPath(child, pathToFind, tail);
+                        return;
                     }
+                    List<String> tail = pathSegments.subList(1, pathSegments.size());
+                    findPath(child, pathToFind, tail);
                 }
             }
         }
     }
 
-    public static void applySorting(JsonElement jsonElement, Set<String> pathsToSort, List<Matcher<String>> fieldMatchersToSort, boolean sortFile) {
+    /**
+     * Sorts the arrays of the tree which were written for Set and Map fields, or whose field matches the paths or
+     * patterns to sort.
+     *
+     * @param jsonElement         the tree to sort
+     * @param arraysToSort        the arrays written for Set and Map fields, see {@link SortMarkingJsonTreeWriter}
+     * @param pathsToSort         the field paths to sort
+     * @param fieldMatchersToSort the field name patterns to sort
+     * @param sortFile            whether the paths and patterns to sort apply
+     */
+    public static void applySorting(JsonElement jsonElement, Set<JsonArray> arraysToSort, Set<String> pathsToSort, List<Matcher<String>> fieldMatchersToSort, boolean sortFile) {
+        applySorting(jsonElement, arraysToSort, Collections.emptySet(), pathsToSort, fieldMatchersToSort, sortFile);
+    }
+
+    /**
+     * Sorts the arrays of the tree like {@link #applySorting(JsonElement, Set, Set, List, boolean)}, visiting the
+     * elements put in the tree more than once only the first time.
+     *
+     * @param jsonElement         the tree to sort
+     * @param arraysToSort        the arrays written for Set and Map fields, see {@link SortMarkingJsonTreeWriter}
+     * @param reusedElements      the elements put in the tree more than once, see
+     *                            {@link SortMarkingJsonTreeWriter#getReusedElements()}
+     * @param pathsToSort         the field paths to sort
+     * @param fieldMatchersToSort the field name patterns to sort
+     * @param sortFile            whether the paths and patterns to sort apply
+     */
+    public static void applySorting(JsonElement jsonElement, Set<JsonArray> arraysToSort, Set<JsonElement> reusedElements, Set<String> pathsToSort, List<Matcher<String>> fieldMatchersToSort, boolean sortFile) {
+        Set<JsonElement> visited = reusedElements.isEmpty() ? null : Collections.newSetFromMap(new IdentityHashMap<>());
+        applySorting(jsonElement, arraysToSort, reusedElements, visited, pathsToSort, fieldMatchersToSort, sortFile);
+    }
+
+    private static void applySorting(JsonElement jsonElement, Set<JsonArray> arraysToSort, Set<JsonElement> reusedElements, Set<JsonElement> visited, Set<String> pathsToSort, List<Matcher<String>> fieldMatchersToSort, boolean sortFile) {
         if (jsonElement != null && !jsonElement.isJsonNull()) {
+            if (visited != null && reusedElements.contains(jsonElement) && !visited.add(jsonElement)) {
+                return;
+            }
             if (jsonElement.isJsonObject()) {
                 Map<String, PathLevel> pathMap = getPathsMap(pathsToSort);
                 JsonObject jsonObject = jsonElement.getAsJsonObject();
@@ -115,11 +141,11 @@ public class FieldsIgnorer {
                     if (actualValue.isJsonNull() || actualValue.isJsonPrimitive()) {
                         continue;
                     }
-                    FieldNamePair fieldNamePair = convertToKeyPair(actual.getKey());
-                    PathLevel pathLevel = pathMap.getOrDefault(fieldNamePair.newKey, PathLevel.EMPTY);
-                    applySorting(actualValue, pathLevel.nextLevel, fieldMatchersToSort, sortFile);
+                    String fieldName = actual.getKey();
+                    PathLevel pathLevel = pathMap.getOrDefault(fieldName, PathLevel.EMPTY);
+                    applySorting(actualValue, arraysToSort, reusedElements, visited, pathLevel.nextLevel, fieldMatchersToSort, sortFile);
                     if (actualValue.isJsonArray()) {
-                        if (fieldNamePair.shouldSortDueToType() || anyPathMatch(fieldNamePair.newKey, pathMap, sortFile) || anyFieldMatcherMatches(fieldNamePair.newKey, fieldMatchersToSort, sortFile)) {
+                        if (arraysToSort.contains(actualValue) || anyPathMatch(fieldName, pathMap, sortFile) || anyFieldMatcherMatches(fieldName, fieldMatchersToSort, sortFile)) {
                             sortJsonArray(actualValue.getAsJsonArray());
                         }
                     }
@@ -131,7 +157,7 @@ public class FieldsIgnorer {
                     if (current.isJsonNull() || current.isJsonPrimitive()) {
                         continue;
                     }
-                    applySorting(current, pathsToSort, fieldMatchersToSort, sortFile);
+                    applySorting(current, arraysToSort, reusedElements, visited, pathsToSort, fieldMatchersToSort, sortFile);
                 }
             }
         }
@@ -238,43 +264,16 @@ public class FieldsIgnorer {
         }
     }
 
-    private static class FieldNamePair implements Comparable<FieldNamePair> {
-        private final String originalKey;
-        private final String newKey;
-
-        public FieldNamePair(String originalKey, String newKey) {
-            this.originalKey = originalKey;
-            this.newKey = newKey;
-        }
-
-        public String getOriginalKey() {
-            return originalKey;
-        }
-
-        public String getNewKey() {
-            return newKey;
-        }
-
-        public boolean shouldSortDueToType() {
-            return !originalKey.equals(newKey);
-        }
-
-        @Override
-        public int compareTo(FieldNamePair keyPair) {
-            return newKey.compareTo(keyPair.newKey);
-        }
-    }
-
     public static void sortJsonFields(JsonElement jsonElement, boolean sortFile) {
         if (sortFile) {
             if (jsonElement != null && !jsonElement.isJsonNull()) {
                 if (jsonElement.isJsonObject()) {
                     JsonObject jsonObject = jsonElement.getAsJsonObject();
-                    List<FieldNamePair> toSort = getFiledNamePairs(jsonObject);
+                    List<String> toSort = new ArrayList<>(jsonObject.keySet());
                     Collections.sort(toSort);
-                    for (FieldNamePair actual : toSort) {
-                        JsonElement element = jsonObject.remove(actual.originalKey);
-                        jsonObject.add(actual.originalKey, element);
+                    for (String actual : toSort) {
+                        JsonElement element = jsonObject.remove(actual);
+                        jsonObject.add(actual, element);
                     }
                     for (Map.Entry<String, JsonElement> actual : jsonObject.entrySet()) {
                         sortJsonFields(actual.getValue(), sortFile);
@@ -293,33 +292,12 @@ public class FieldsIgnorer {
         }
     }
 
-    private static List<FieldNamePair> getFiledNamePairs(JsonObject input) {
-        List<FieldNamePair> result = new ArrayList<>(input.size());
-        for (String actual : input.keySet()) {
-            result.add(convertToKeyPair(actual));
-        }
-        return result;
-    }
-
-    private static FieldNamePair convertToKeyPair(String input) {
-        return new FieldNamePair(input, getOriginalFieldName(input));
-    }
-
-    private static String getOriginalFieldName(String input) {
-        String result = input;
-        if (result.startsWith(MARKER)) {
-            result = result.substring(MARKER.length());
-        }
-        return result;
-    }
-
     private static void ignorePath(JsonElement jsonElement, String pathToIgnore) {
         if (!jsonElement.isJsonNull()) {
             if (!jsonElement.isJsonObject()) {
                 throw new IllegalArgumentException();
             }
             jsonElement.getAsJsonObject().remove(getLastSegmentOf(pathToIgnore));
-            jsonElement.getAsJsonObject().remove(MARKER + getLastSegmentOf(pathToIgnore));
         }
     }
 
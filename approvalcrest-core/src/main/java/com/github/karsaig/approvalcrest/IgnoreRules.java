@@ -0,0 +1,125 @@
+package com.github.karsaig.approvalcrest;
+
+import static java.lang.reflect.Modifier.isStatic;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hamcrest.Matcher;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * The types and field name patterns to ignore of a {@link MatcherConfiguration}, with the decisions made once per class.
+ * Shared by the {@link CyclicReferenceDetector} and the exclusion strategy of the matchers' Gson, so the field name
+ * patterns are matched against each field of a class only once, however many instances of the class are visited.
+ * <p>
+ * The decisions are kept in a {@link ClassValue}, which is read without locking and doesn't keep the classes from being
+ * unloaded. The decisions don't reference the rules, so they are collected with them. The rules are shared by the
+ * configurations with the same types and field name patterns to ignore, so the decisions are made once for all of them,
+ * the patterns compared like {@link InstanceKey}s.
+ */
+public final class IgnoreRules {
+
+    private static final int CACHE_SIZE = 64;
+    private static final Cache<List<Object>, IgnoreRules> CACHE = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    private final List<Class<?>> typesToIgnore;
+    private final List<Matcher<String>> patternsToIgnore;
+    private final ClassValue<ClassRules> classRules = new ClassValue<ClassRules>() {
+        @Override
+        protected ClassRules computeValue(Class<?> type) {
+            return new ClassRules(type, typesToIgnore, patternsToIgnore);
+        }
+    };
+
+    private IgnoreRules(List<Class<?>> typesToIgnore, List<Matcher<String>> patternsToIgnore) {
+        this.typesToIgnore = typesToIgnore;
+        this.patternsToIgnore = patternsToIgnore;
+    }
+
+    static IgnoreRules of(Collection<Class<?>> typesToIgnore, Collection<Matcher<String>> patternsToIgnore) {
+        List<Class<?>> types = new ArrayList<>(typesToIgnore);
+        List<Matcher<String>> patterns = new ArrayList<>(patternsToIgnore);
+        List<Object> key = Arrays.asList(types, InstanceKey.of(patterns));
+        return CACHE.asMap().computeIfAbsent(key, k -> new IgnoreRules(types, patterns));
+    }
+
+    /**
+     * @return true if there are neither types nor field name patterns to ignore
+     */
+    public boolean isEmpty() {
+        return typesToIgnore.isEmpty() && patternsToIgnore.isEmpty();
+    }
+
+    /**
+     * @param type the type to check
+     * @return true if the type is one of the types to ignore
+     */
+    public boolean isTypeIgnored(Class<?> type) {
+        return classRules.get(type).typeIgnored;
+    }
+
+    /**
+     * @param type the type to check
+     * @return true if the type is one of the types to ignore or one of their subtypes
+     */
+    public boolean isSubtypeOfIgnoredType(Class<?> type) {
+        return classRules.get(type).subtypeOfIgnoredType;
+    }
+
+    /**
+     * @param declaringClass the class declaring the field
+     * @param fieldName      the name of the field
+     * @return true if the name of the field matches any of the field name patterns to ignore
+     */
+    public boolean isFieldIgnored(Class<?> declaringClass, String fieldName) {
+        return classRules.get(declaringClass).ignoredFieldNames.contains(fieldName);
+    }
+
+    /**
+     * @param type the type to get the fields of
+     * @return the non static fields declared by the type, whose name doesn't match any of the field name patterns to
+     * ignore, in declaration order
+     */
+    public List<Field> getFieldsToVisit(Class<?> type) {
+        return classRules.get(type).fieldsToVisit;
+    }
+
+    private static final class ClassRules {
+        private final boolean typeIgnored;
+        private final boolean subtypeOfIgnoredType;
+        private final Set<String> ignoredFieldNames = new HashSet<>();
+        private final List<Field> fieldsToVisit;
+
+        private ClassRules(Class<?> type, List<Class<?>> typesToIgnore, List<Matcher<String>> patternsToIgnore) {
+            List<Field> fields = new ArrayList<>();
+            typeIgnored = typesToIgnore.contains(type);
+            subtypeOfIgnoredType = typesToIgnore.stream().anyMatch(ignored -> ignored.isAssignableFrom(type));
+            for (Field field : type.getDeclaredFields()) {
+                if (matchesAnyPattern(patternsToIgnore, field.getName())) {
+                    ignoredFieldNames.add(field.getName());
+                } else if (!isStatic(field.getModifiers())) {
+                    fields.add(field);
+                }
+            }
+            fieldsToVisit = Collections.unmodifiableList(fields);
+        }
+
+        private static boolean matchesAnyPattern(List<Matcher<String>> patternsToIgnore, String fieldName) {
+            for (Matcher<String> pattern : patternsToIgnore) {
+                if (pattern.matches(fieldName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.karsaig.approvalcrest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Key of an object of a configuration which can hold any state, such as a field name pattern or a proxy unwrapper, in
+ * the caches of the rules and {@link com.google.gson.Gson} instances built from a configuration. The object is compared
+ * with its {@code equals} if its class implements it, by identity otherwise, as the description of a
+ * {@link org.hamcrest.Matcher} doesn't have to say what it matches.
+ */
+public final class InstanceKey {
+
+    private static final ClassValue<Boolean> IMPLEMENTS_EQUALS = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final Object instance;
+    private final boolean comparedWithEquals;
+
+    private InstanceKey(Object instance) {
+        this.instance = instance;
+        this.comparedWithEquals = IMPLEMENTS_EQUALS.get(instance.getClass());
+    }
+
+    /**
+     * @param instances the objects to get the keys of
+     * @return the keys of the objects, in the same order
+     */
+    public static List<InstanceKey> of(Collection<?> instances) {
+        List<InstanceKey> result = new ArrayList<>();
+        if (instances != null) {
+            for (Object instance : instances) {
+                result.add(new InstanceKey(instance));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InstanceKey)) {
+            return false;
+        }
+        InstanceKey that = (InstanceKey) o;
+        return comparedWithEquals ? instance.equals(that.instance) : instance == that.instance;
+    }
+
+    @Override
+    public int hashCode() {
+        return comparedWithEquals ? instance.hashCode() : System.identityHashCode(instance);
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.karsaig.approvalcrest;
+
+import static org.apache.commons.lang3.ClassUtils.isPrimitiveOrWrapper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The types whose instances can't reference the other objects of a graph: primitives and their wrappers, Strings,
+ * classes, enums, and the JDK value types Gson or the type adapters of the matchers write without reflection. The
+ * {@link CyclicReferenceDetector} doesn't look into them, so it doesn't reflect on the private fields of the JDK, which
+ * are not accessible from JDK 17 onwards.
+ * <p>
+ * The JDK value types are matched by their exact class, a subclass of {@link BigDecimal} or {@link BigInteger} may
+ * declare fields of its own.
+ */
+public final class LeafTypes {
+
+    private static final Set<Class<?>> JDK_VALUE_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            UUID.class, BigDecimal.class, BigInteger.class, URI.class, URL.class, Locale.class, Currency.class, BitSet.class,
+            AtomicBoolean.class, AtomicInteger.class, AtomicLong.class, OptionalInt.class, OptionalLong.class, OptionalDouble.class,
+            Duration.class, Period.class, Instant.class, LocalDate.class, LocalDateTime.class, LocalTime.class,
+            OffsetDateTime.class, OffsetTime.class, ZonedDateTime.class, Year.class, YearMonth.class, MonthDay.class)));
+
+    private LeafTypes() {
+    }
+
+    /**
+     * @param type the class to check
+     * @return true if the instances of the class don't reference other objects of the graph
+     */
+    public static boolean isLeaf(Class<?> type) {
+        return isPrimitiveOrWrapper(type)
+                || type == String.class
+                || type == Class.class
+                || Enum.class.isAssignableFrom(type)
+                || JDK_VALUE_TYPES.contains(type)
+                || ZoneId.class.isAssignableFrom(type);
+    }
+}
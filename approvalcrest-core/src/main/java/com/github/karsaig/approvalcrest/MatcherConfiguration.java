@@ -5,6 +5,7 @@ import org.hamcrest.Matcher;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -22,6 +23,13 @@ public class MatcherConfiguration {
     private final List<Function<Object, Boolean>> skipCircularReferenceCheck = new ArrayList<>();
     private final Set<String> pathsToSort = new HashSet<>();
     private final List<Matcher<String>> patternsToSort = new ArrayList<>();
+    private final List<Matcher<String>> proxyClassNamePatterns = new ArrayList<>();
+    private final List<Function<Object, Object>> proxyUnwrappers = new ArrayList<>();
+    private boolean writeMapsAsObjects;
+    private boolean readFieldsWithGeneratedAccessors;
+    private boolean writeNumberArraysInRows;
+    private IgnoreRules ignoreRules;
+    private ProxyRules proxyRules;
 
     public MatcherConfiguration() {
         skipCircularReferenceCheck.add(o -> Path.class.isInstance(o));
@@ -36,7 +44,7 @@ public class MatcherConfiguration {
     }
 
     public List<Matcher<String>> getPatternsToIgnore() {
-        return patternsToIgnore;
+        return Collections.unmodifiableList(patternsToIgnore);
     }
 
     public List<Function<Object, Boolean>> getSkipCircularReferenceCheck() {
@@ -44,7 +52,7 @@ public class MatcherConfiguration {
     }
 
     public List<Class<?>> getTypesToIgnore() {
-        return typesToIgnore;
+        return Collections.unmodifiableList(typesToIgnore);
     }
 
     public Set<String> getPathsToSort() {
@@ -55,6 +63,48 @@ public class MatcherConfiguration {
         return patternsToSort;
     }
 
+    /**
+     * @return the {@link IgnoreRules} of the types and field name patterns to ignore, shared with the configurations
+     * ignoring the same ones and looked up once until either changes
+     */
+    public IgnoreRules getIgnoreRules() {
+        if (ignoreRules == null) {
+            ignoreRules = IgnoreRules.of(typesToIgnore, patternsToIgnore);
+        }
+        return ignoreRules;
+    }
+
+    public List<Matcher<String>> getProxyClassNamePatterns() {
+        return Collections.unmodifiableList(proxyClassNamePatterns);
+    }
+
+    public List<Function<Object, Object>> getProxyUnwrappers() {
+        return Collections.unmodifiableList(proxyUnwrappers);
+    }
+
+    /**
+     * @return the {@link ProxyRules} of the proxy class name patterns and unwrappers, shared with the configurations
+     * having the same ones and looked up once until either changes
+     */
+    public ProxyRules getProxyRules() {
+        if (proxyRules == null) {
+            proxyRules = ProxyRules.of(proxyClassNamePatterns, proxyUnwrappers);
+        }
+        return proxyRules;
+    }
+
+    public boolean isWriteMapsAsObjects() {
+        return writeMapsAsObjects;
+    }
+
+    public boolean isReadFieldsWithGeneratedAccessors() {
+        return readFieldsWithGeneratedAccessors;
+    }
+
+    public boolean isWriteNumberArraysInRows() {
+        return writeNumberArraysInRows;
+    }
+
     public MatcherConfiguration addPathToIgnore(String path) {
         pathsToIgnore.add(path);
         return this;
@@ -78,11 +128,13 @@ public class MatcherConfiguration {
     }
 
     public MatcherConfiguration addTypeToIgnore(Class<?> clazz) {
+        ignoreRules = null;
         typesToIgnore.add(clazz);
         return this;
     }
 
     public MatcherConfiguration addTypeToIgnore(Class<?>[] clazzs) {
+        ignoreRules = null;
         for (Class<?> clazz : clazzs) {
             typesToIgnore.add(clazz);
         }
@@ -90,16 +142,19 @@ public class MatcherConfiguration {
     }
 
     public MatcherConfiguration addTypeToIgnore(Collection<Class<?>> clazzs) {
+        ignoreRules = null;
         typesToIgnore.addAll(clazzs);
         return this;
     }
 
     public MatcherConfiguration addPatternToIgnore(Matcher<String> fieldNamePattern) {
+        ignoreRules = null;
         patternsToIgnore.add(fieldNamePattern);
         return this;
     }
 
     public MatcherConfiguration addPatternToIgnore(Matcher<String>[] fieldNamePatterns) {
+        ignoreRules = null;
         for (Matcher<String> matcher : fieldNamePatterns) {
             patternsToIgnore.add(matcher);
         }
@@ -107,6 +162,7 @@ public class MatcherConfiguration {
     }
 
     public MatcherConfiguration addPatternToIgnore(Collection<Matcher<String>> fieldNamePattern) {
+        ignoreRules = null;
         patternsToIgnore.addAll(fieldNamePattern);
         return this;
     }
@@ -157,4 +213,31 @@ public class MatcherConfiguration {
         pathsToSort.addAll(fieldPaths);
         return this;
     }
+
+    public MatcherConfiguration addProxyClassNamePattern(Matcher<String> classNamePattern) {
+        proxyRules = null;
+        proxyClassNamePatterns.add(classNamePattern);
+        return this;
+    }
+
+    public MatcherConfiguration addProxyUnwrapper(Function<Object, Object> unwrapper) {
+        proxyRules = null;
+        proxyUnwrappers.add(unwrapper);
+        return this;
+    }
+
+    public MatcherConfiguration writeMapsAsObjects() {
+        writeMapsAsObjects = true;
+        return this;
+    }
+
+    public MatcherConfiguration readFieldsWithGeneratedAccessors() {
+        readFieldsWithGeneratedAccessors = true;
+        return this;
+    }
+
+    public MatcherConfiguration writeNumberArraysInRows() {
+        writeNumberArraysInRows = true;
+        return this;
+    }
 }
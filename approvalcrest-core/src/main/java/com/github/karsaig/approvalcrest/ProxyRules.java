@@ -0,0 +1,133 @@
+package com.github.karsaig.approvalcrest;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+import org.hamcrest.Matcher;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Recognises the lazy loading proxies of ORM or RPC layers, so neither the {@link CyclicReferenceDetector} nor the
+ * matchers' Gson read their fields, which would load them and serialise their handlers and interceptors. A proxy is an
+ * instance of a class whose name matches one of the proxy class name patterns of a {@link MatcherConfiguration}, or a
+ * JDK dynamic proxy once a pattern or an unwrapper is configured. Without either, nothing is a proxy and objects are
+ * written as before.
+ * <p>
+ * A proxy is replaced by the object the first of the unwrappers returns for it. If none returns anything, as the proxy
+ * is not loaded yet, it is written as a placeholder naming the type it stands for instead:
+ * {@code {"$proxy": "<proxied type>"}}. The proxied type of a proxy subclassing the proxied class is its first
+ * superclass which is not a proxy, the proxied type of any other proxy is the list of interfaces it implements.
+ * <p>
+ * The decisions are kept in {@link ClassValue}s holding only whether a class is a proxy and the name of its proxied
+ * type, so they are collected with the rules. Like the {@link IgnoreRules}, the rules are shared by the configurations
+ * with the same proxy class name patterns and unwrappers, compared like {@link InstanceKey}s, so the decisions are made
+ * once for all of them.
+ */
+public final class ProxyRules {
+
+    public static final String REFERENCE = "$proxy";
+
+    private static final int CACHE_SIZE = 64;
+    private static final Cache<List<Object>, ProxyRules> CACHE = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    private final List<Matcher<String>> classNamePatterns;
+    private final List<Function<Object, Object>> unwrappers;
+    private final ClassValue<Boolean> proxies = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isProxyClass(type);
+        }
+    };
+    private final ClassValue<String> proxiedTypeNames = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return findProxiedTypeName(type);
+        }
+    };
+
+    private ProxyRules(List<Matcher<String>> classNamePatterns, List<Function<Object, Object>> unwrappers) {
+        this.classNamePatterns = classNamePatterns;
+        this.unwrappers = unwrappers;
+    }
+
+    static ProxyRules of(Collection<Matcher<String>> classNamePatterns, Collection<Function<Object, Object>> unwrappers) {
+        List<Matcher<String>> patterns = new ArrayList<>(classNamePatterns);
+        List<Function<Object, Object>> functions = new ArrayList<>(unwrappers);
+        List<Object> key = Arrays.asList(InstanceKey.of(patterns), InstanceKey.of(functions));
+        return CACHE.asMap().computeIfAbsent(key, k -> new ProxyRules(patterns, functions));
+    }
+
+    /**
+     * @return true if proxy class name patterns or unwrappers are configured, otherwise no type is a proxy
+     */
+    public boolean isConfigured() {
+        return !classNamePatterns.isEmpty() || !unwrappers.isEmpty();
+    }
+
+    /**
+     * @param type the type to check
+     * @return true if the instances of the type are proxies
+     */
+    public boolean isProxy(Class<?> type) {
+        return proxies.get(type);
+    }
+
+    /**
+     * @param proxy a proxy
+     * @return the object the first unwrapper resolves the proxy to, null if none of them does
+     */
+    public Object unwrap(Object proxy) {
+        for (Function<Object, Object> unwrapper : unwrappers) {
+            Object target = unwrapper.apply(proxy);
+            if (target != null && target != proxy) {
+                return target;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param type the type of a proxy
+     * @return the name of the type the proxy stands for, written in the placeholder of a proxy not unwrapped
+     */
+    public String getProxiedTypeName(Class<?> type) {
+        return proxiedTypeNames.get(type);
+    }
+
+    private boolean isProxyClass(Class<?> type) {
+        if (!isConfigured()) {
+            return false;
+        }
+        if (Proxy.isProxyClass(type)) {
+            return true;
+        }
+        for (Matcher<String> pattern : classNamePatterns) {
+            if (pattern.matches(type.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String findProxiedTypeName(Class<?> type) {
+        Class<?> proxied = type;
+        while (proxied != null && proxied != Object.class && (proxied == Proxy.class || isProxy(proxied))) {
+            proxied = proxied.getSuperclass();
+        }
+        if (proxied != null && proxied != Object.class) {
+            return proxied.getName();
+        }
+        StringJoiner interfaces = new StringJoiner(", ");
+        for (Class<?> implemented : type.getInterfaces()) {
+            interfaces.add(implemented.getName());
+        }
+        return interfaces.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.karsaig.approvalcrest;
+
+import static java.lang.reflect.Modifier.isFinal;
+import static java.lang.reflect.Modifier.isStatic;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recognises Java records while targeting Java 8: a record is a class extending {@code java.lang.Record}, its non static
+ * fields are its components, and each component has an accessor method of the same name.
+ * <p>
+ * A record whose components are all of final {@link LeafTypes} or enums is acyclic by construction: it references no
+ * object which could reference it back. A record with a record component is still walked, records can be cyclic, a
+ * component can hold a mutable object referencing the record. The decisions are kept in {@link ClassValue}s.
+ */
+public final class Records {
+
+    private static final String RECORD = "java.lang.Record";
+    private static final boolean SUPPORTED = isRecordClassPresent();
+
+    private static final ClassValue<List<Field>> COMPONENT_FIELDS = new ClassValue<List<Field>>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (!isStatic(field.getModifiers())) {
+                    fields.add(field);
+                }
+            }
+            return Collections.unmodifiableList(fields);
+        }
+    };
+
+    private static final ClassValue<FieldReader> COMPONENT_READERS = new ClassValue<FieldReader>() {
+        @Override
+        protected FieldReader computeValue(Class<?> type) {
+            return FieldReader.ofRecordComponents(getComponentFields(type));
+        }
+    };
+
+    private static final ClassValue<Boolean> ACYCLIC_BY_CONSTRUCTION = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (!isRecord(type)) {
+                return false;
+            }
+            for (Field field : getComponentFields(type)) {
+                if (!isLeaf(field.getType())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    private Records() {
+    }
+
+    /**
+     * @return true if the JDK running has records
+     */
+    public static boolean areSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * @param type the class to check
+     * @return true if the class is a record
+     */
+    public static boolean isRecord(Class<?> type) {
+        Class<?> superclass = type.getSuperclass();
+        return superclass != null && superclass.getName().equals(RECORD);
+    }
+
+    /**
+     * @param type a record class
+     * @return the fields of the components of the record
+     */
+    public static List<Field> getComponentFields(Class<?> type) {
+        return COMPONENT_FIELDS.get(type);
+    }
+
+    /**
+     * @param type a record class
+     * @return the reader of the components of the record through their accessors, the fields of a record can't be made
+     * accessible on every JDK
+     */
+    public static FieldReader getComponentReader(Class<?> type) {
+        return COMPONENT_READERS.get(type);
+    }
+
+    /**
+     * @param type the class to check
+     * @return true if the class is a record of leaf components, which can't be part of a circular reference
+     */
+    public static boolean isAcyclicByConstruction(Class<?> type) {
+        return ACYCLIC_BY_CONSTRUCTION.get(type);
+    }
+
+    private static boolean isRecordClassPresent() {
+        try {
+            Class.forName(RECORD);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The types {@link CyclicReferenceDetector} doesn't look into. The type of a component is only declared, the leaf
+     * types which are not final may be subclassed.
+     */
+    private static boolean isLeaf(Class<?> type) {
+        return LeafTypes.isLeaf(type) && (isFinal(type.getModifiers()) || type.isEnum());
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.karsaig.approvalcrest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Collects the Strings and byte arrays longer than a threshold, which {@link SortMarkingJsonTreeWriter} writes as a
+ * reference to a sidecar file instead of the value: {@code {"$sidecar": "<SHA-256 of the content>.txt"}} for a String
+ * and {@code .bin} for a byte array. The files are named after the digest of their content, so equal references mean
+ * equal values, and a value is kept once however many times it is referenced.
+ */
+public final class Sidecars {
+
+    public static final String REFERENCE = "$sidecar";
+    private static final String TEXT_EXTENSION = ".txt";
+    private static final String BINARY_EXTENSION = ".bin";
+
+    private final int threshold;
+    private final Map<String, byte[]> contents = new LinkedHashMap<>();
+
+    /**
+     * @param threshold the length of the longest String, in characters, or byte array, in bytes, written in the JSON
+     */
+    public Sidecars(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param length the length of a String or byte array
+     * @return true if a value of the given length is written to a sidecar file
+     */
+    boolean isWrittenToSidecar(int length) {
+        return length > threshold;
+    }
+
+    JsonObject reference(String value) {
+        return reference(value.getBytes(UTF_8), TEXT_EXTENSION);
+    }
+
+    JsonObject reference(byte[] value) {
+        return reference(value, BINARY_EXTENSION);
+    }
+
+    private JsonObject reference(byte[] content, String extension) {
+        String fileName = Hashing.sha256().hashBytes(content).toString() + extension;
+        contents.putIfAbsent(fileName, content);
+        JsonObject reference = new JsonObject();
+        reference.addProperty(REFERENCE, fileName);
+        return reference;
+    }
+
+    /**
+     * @return the contents of the sidecar files referenced, by their file names
+     */
+    public Map<String, byte[]> getContents() {
+        return Collections.unmodifiableMap(contents);
+    }
+
+    /**
+     * @param element an element of a JSON tree
+     * @return the name of the sidecar file the element references, null if it isn't a reference
+     */
+    public static String getFileName(JsonElement element) {
+        if (!element.isJsonObject() || element.getAsJsonObject().size() != 1) {
+            return null;
+        }
+        JsonElement fileName = element.getAsJsonObject().get(REFERENCE);
+        return fileName != null && fileName.isJsonPrimitive() && fileName.getAsJsonPrimitive().isString() ? fileName.getAsString() : null;
+    }
+
+    /**
+     * @param fileName the name of a sidecar file
+     * @param content  the content of the file
+     * @return the value the reference to the file stands for, as it is written without sidecar files
+     */
+    public static JsonElement getValue(String fileName, byte[] content) {
+        if (!fileName.endsWith(BINARY_EXTENSION)) {
+            return new JsonPrimitive(new String(content, UTF_8));
+        }
+        JsonArray array = new JsonArray(content.length);
+        for (byte b : content) {
+            array.add(b);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,625 @@
+package com.github.karsaig.approvalcrest;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.bind.TypeAdapters;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * {@link JsonWriter} building a {@link JsonElement} tree, like the tree writer of {@link Gson#toJsonTree(Object)}, which
+ * also collects the arrays to be sorted. The matchers' {@link Gson} tells the writer with {@link #sortNextArray()} when
+ * it writes a Set or Map field, and the Set and Map serialisers write their trees with
+ * {@link #writeTree(JsonWriter, JsonElement, Set)}, telling which arrays of their elements are to be sorted. This writer
+ * keeps those written for a field in {@link #getArraysToSort()}.
+ * <p>
+ * The writer can also be given field paths to ignore, resolved the same way as by
+ * {@link FieldsIgnorer#findPaths(JsonElement, Set)}: arrays are transparent, and the last segment names the member to
+ * remove. Everything written for an ignored member is dropped without being added to the tree, and
+ * {@link #isIgnoringValue()} tells adapters they don't need to write it at all.
+ * <p>
+ * A sorted tree has the members of its objects in the order of their names, like after
+ * {@link FieldsIgnorer#sortJsonFields(JsonElement, boolean)}. The members of an object are kept aside until the object
+ * ends, and only sorted if they were not written in order.
+ * <p>
+ * Given {@link Sidecars}, long Strings and byte arrays are replaced by references to the sidecar files holding them.
+ * <p>
+ * Adapters can write an object with {@link #memoizedValue(Object, ValueWriter)}, which writes an object referenced
+ * again by putting the tree written for it the first time in the tree once more, see {@link #getReusedElements()}.
+ */
+public final class SortMarkingJsonTreeWriter extends JsonWriter {
+
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int counter) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private static final String PATH_SEPARATOR_PATTERN = Pattern.quote(".");
+
+    private final List<Frame> stack = new ArrayList<>();
+    private final Set<JsonArray> arraysToSort = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Object, JsonElement> memoizedElements = new IdentityHashMap<>();
+    private final Set<JsonElement> reusedElements = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final PathNode pathsToIgnore;
+    private final boolean sortFields;
+    private final Sidecars sidecars;
+    private String pendingName;
+    private PathNode pendingNode;
+    private boolean nextArrayToSort;
+    private int ignoredDepth;
+    private Object pendingMemoizedValue;
+    private boolean closed;
+    private JsonElement product = JsonNull.INSTANCE;
+
+    private SortMarkingJsonTreeWriter(PathNode pathsToIgnore, boolean sortFields, Sidecars sidecars) {
+        super(UNWRITABLE_WRITER);
+        this.pathsToIgnore = pathsToIgnore;
+        this.sortFields = sortFields;
+        this.sidecars = sidecars;
+    }
+
+    /**
+     * Serialises the object to a tree with the given {@link Gson}, with the members of objects in the order they were
+     * written.
+     *
+     * @param gson   the {@link Gson} to serialise with
+     * @param object the object to serialise
+     * @return the writer holding the tree and the arrays to be sorted
+     */
+    public static SortMarkingJsonTreeWriter toJsonTree(Gson gson, Object object) {
+        return write(gson, object, new SortMarkingJsonTreeWriter(null, false, null));
+    }
+
+    /**
+     * Serialises the object to a sorted tree with the given {@link Gson}, leaving out the given field paths.
+     *
+     * @param gson          the {@link Gson} to serialise with
+     * @param object        the object to serialise
+     * @param pathsToIgnore the field paths to leave out of the tree
+     * @return the writer holding the tree and the arrays to be sorted
+     */
+    public static SortMarkingJsonTreeWriter toSortedJsonTree(Gson gson, Object object, Set<String> pathsToIgnore) {
+        return toSortedJsonTree(gson, object, pathsToIgnore, null);
+    }
+
+    /**
+     * Serialises the object to a sorted tree with the given {@link Gson}, leaving out the given field paths and writing
+     * long values to sidecar files.
+     *
+     * @param gson          the {@link Gson} to serialise with
+     * @param object        the object to serialise
+     * @param pathsToIgnore the field paths to leave out of the tree
+     * @param sidecars      collects the values written to sidecar files, null to write every value in the tree
+     * @return the writer holding the tree and the arrays to be sorted
+     */
+    public static SortMarkingJsonTreeWriter toSortedJsonTree(Gson gson, Object object, Set<String> pathsToIgnore, Sidecars sidecars) {
+        return write(gson, object, new SortMarkingJsonTreeWriter(PathNode.of(pathsToIgnore), true, sidecars));
+    }
+
+    private static SortMarkingJsonTreeWriter write(Gson gson, Object object, SortMarkingJsonTreeWriter writer) {
+        if (object != null) {
+            gson.toJson(object, object.getClass(), writer);
+        }
+        return writer;
+    }
+
+    /**
+     * Serialises the value to a tree with the given adapter, like {@link TypeAdapter#toJsonTree(Object)}.
+     *
+     * @param adapter the adapter to serialise with
+     * @param value   the value to serialise
+     * @param <T>     the type of the value
+     * @return the writer holding the tree and the arrays to be sorted
+     * @throws IOException if the adapter fails to write the value
+     */
+    public static <T> SortMarkingJsonTreeWriter toJsonTree(TypeAdapter<T> adapter, T value) throws IOException {
+        SortMarkingJsonTreeWriter writer = new SortMarkingJsonTreeWriter(null, false, null);
+        adapter.write(writer, value);
+        return writer;
+    }
+
+    /**
+     * Writes a tree to the given writer. A writer of this class keeps the arrays of the tree to be sorted, like the
+     * arrays of its own tree, other writers only get the tree.
+     *
+     * @param out          the writer to write to
+     * @param tree         the tree to write
+     * @param arraysToSort the arrays of the tree to be sorted when written for a field, compared by identity
+     * @throws IOException if the tree can't be written
+     */
+    public static void writeTree(JsonWriter out, JsonElement tree, Set<JsonArray> arraysToSort) throws IOException {
+        if (out instanceof SortMarkingJsonTreeWriter) {
+            ((SortMarkingJsonTreeWriter) out).tree(tree, arraysToSort);
+        } else {
+            TypeAdapters.JSON_ELEMENT.write(out, tree);
+        }
+    }
+
+    /**
+     * Serialises the object to JSON with the given {@link Gson}, through the tree of this writer.
+     *
+     * @param gson   the {@link Gson} to serialise with
+     * @param object the object to serialise
+     * @return the JSON
+     */
+    public static String toJson(Gson gson, Object object) {
+        return gson.toJson(toJsonTree(gson, object).get());
+    }
+
+    /**
+     * @return the written tree
+     */
+    public JsonElement get() {
+        if (!stack.isEmpty()) {
+            throw new IllegalStateException("Expected one JSON element but was " + stack.get(0).element);
+        }
+        return product;
+    }
+
+    /**
+     * @return the arrays written for Set and Map fields, compared by identity
+     */
+    public Set<JsonArray> getArraysToSort() {
+        return arraysToSort;
+    }
+
+    /**
+     * @return the elements put in the tree more than once by {@link #memoizedValue(Object, ValueWriter)}, compared by
+     * identity
+     */
+    public Set<JsonElement> getReusedElements() {
+        return reusedElements;
+    }
+
+    /**
+     * Writes an object with the given writer the first time, and puts the tree written then in the tree again for every
+     * later reference to the same object. Only trees of JSON objects with no field path to ignore under them are
+     * reused, so they are the same wherever the object is referenced. The object must not be part of a circular
+     * reference, it is looked up by identity and expected not to change while it is written.
+     *
+     * @param value       the object to write
+     * @param valueWriter writes the object to this writer
+     */
+    public void memoizedValue(Object value, ValueWriter valueWriter) throws IOException {
+        if (isIgnoringValue() || nextNode() != null) {
+            valueWriter.write();
+            return;
+        }
+        JsonElement written = memoizedElements.get(value);
+        if (written != null) {
+            reusedElements.add(written);
+            put(written);
+        } else {
+            pendingMemoizedValue = value;
+            valueWriter.write();
+        }
+    }
+
+    /**
+     * Keeps the next value to be sorted, if it is an array written for a field.
+     */
+    public void sortNextArray() {
+        nextArrayToSort = !isIgnoringValue();
+    }
+
+    /**
+     * @return true if the next value is written for an ignored path, and would be dropped
+     */
+    public boolean isIgnoringValue() {
+        return ignoredDepth > 0 || pendingNode != null && pendingNode.ignored;
+    }
+
+    private Frame peek() {
+        if (stack.isEmpty() || closed) {
+            throw new IllegalStateException();
+        }
+        return stack.get(stack.size() - 1);
+    }
+
+    /**
+     * Drops the value if it belongs to an ignored path.
+     *
+     * @param container true if the value is an array or an object
+     * @return true if the value was dropped
+     */
+    private boolean ignore(boolean container) {
+        if (ignoredDepth > 0) {
+            if (container) {
+                ++ignoredDepth;
+            }
+            return true;
+        }
+        if (pendingNode != null && pendingNode.ignored) {
+            pendingName = null;
+            pendingNode = null;
+            nextArrayToSort = false;
+            if (container) {
+                ignoredDepth = 1;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the node of the paths to ignore under the next value
+     */
+    private PathNode nextNode() {
+        if (pendingName != null) {
+            return pendingNode;
+        }
+        return stack.isEmpty() ? pathsToIgnore : peek().node;
+    }
+
+    private void put(JsonElement value) {
+        nextArrayToSort = false;
+        if (pendingMemoizedValue != null) {
+            if (value.isJsonObject()) {
+                memoizedElements.put(pendingMemoizedValue, value);
+            }
+            pendingMemoizedValue = null;
+        }
+        if (pendingName != null) {
+            if (!value.isJsonNull() || getSerializeNulls()) {
+                peek().add(pendingName, value);
+            }
+            pendingName = null;
+            pendingNode = null;
+        } else if (stack.isEmpty()) {
+            if (closed) {
+                throw new IllegalStateException();
+            }
+            product = value;
+        } else {
+            JsonElement element = peek().element;
+            if (element instanceof JsonArray) {
+                ((JsonArray) element).add(value);
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    /**
+     * Writes a tree, streaming it like {@link TypeAdapters#JSON_ELEMENT}, so the paths to ignore and the order of the
+     * fields apply to it.
+     */
+    private void tree(JsonElement tree, Set<JsonArray> arraysToSort) throws IOException {
+        if (isIgnoringValue()) {
+            nullValue();
+        } else if (tree.isJsonArray()) {
+            JsonArray array = tree.getAsJsonArray();
+            beginArray(arraysToSort.contains(array));
+            for (JsonElement element : array) {
+                tree(element, arraysToSort);
+            }
+            endArray();
+        } else if (tree.isJsonObject()) {
+            beginObject();
+            for (Map.Entry<String, JsonElement> member : tree.getAsJsonObject().entrySet()) {
+                name(member.getKey());
+                tree(member.getValue(), arraysToSort);
+            }
+            endObject();
+        } else {
+            TypeAdapters.JSON_ELEMENT.write(this, tree);
+        }
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        return beginArray(false);
+    }
+
+    /**
+     * @param toSort true if the array is to be sorted when written for a field
+     */
+    private JsonWriter beginArray(boolean toSort) throws IOException {
+        if (ignore(true)) {
+            return this;
+        }
+        PathNode node = nextNode();
+        JsonArray array = new JsonArray();
+        if ((toSort || nextArrayToSort) && pendingName != null) {
+            arraysToSort.add(array);
+        }
+        put(array);
+        stack.add(new Frame(array, node, null));
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        if (ignoredDepth > 0) {
+            --ignoredDepth;
+            return this;
+        }
+        if (pendingName != null || !(peek().element instanceof JsonArray)) {
+            throw new IllegalStateException();
+        }
+        stack.remove(stack.size() - 1);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        if (ignore(true)) {
+            return this;
+        }
+        PathNode node = nextNode();
+        JsonObject object = new JsonObject();
+        put(object);
+        stack.add(new Frame(object, node, sortFields ? new Members() : null));
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        if (ignoredDepth > 0) {
+            --ignoredDepth;
+            return this;
+        }
+        Frame frame = peek();
+        if (pendingName != null || !(frame.element instanceof JsonObject)) {
+            throw new IllegalStateException();
+        }
+        if (frame.members != null) {
+            frame.members.addTo((JsonObject) frame.element);
+        }
+        stack.remove(stack.size() - 1);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new NullPointerException("name == null");
+        }
+        if (ignoredDepth > 0) {
+            return this;
+        }
+        Frame frame = peek();
+        if (pendingName != null || !(frame.element instanceof JsonObject)) {
+            throw new IllegalStateException();
+        }
+        pendingName = name;
+        pendingNode = frame.node == null ? null : frame.node.children.get(pendingName);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (!ignore(false)) {
+            boolean toSidecar = sidecars != null && sidecars.isWrittenToSidecar(value.length());
+            put(toSidecar ? sidecars.reference(value) : new JsonPrimitive(value));
+        }
+        return this;
+    }
+
+    /**
+     * Writes the bytes as a reference to a sidecar file, if this writer writes byte arrays of their length to sidecar
+     * files.
+     *
+     * @param value the bytes to write
+     * @return true if the bytes were written, false if they are to be written as an array
+     */
+    public boolean sidecarValue(byte[] value) {
+        if (sidecars == null || !sidecars.isWrittenToSidecar(value.length)) {
+            return false;
+        }
+        if (!ignore(false)) {
+            put(sidecars.reference(value));
+        }
+        return true;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (!ignore(false)) {
+            put(JsonNull.INSTANCE);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        if (!ignore(false)) {
+            put(new JsonPrimitive(value));
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        if (!ignore(false)) {
+            put(new JsonPrimitive(value));
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return nonFiniteValue(String.valueOf(value));
+        }
+        if (!ignore(false)) {
+            put(new JsonPrimitive(value));
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        if (!ignore(false)) {
+            put(new JsonPrimitive(value));
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        double d = value.doubleValue();
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            return nonFiniteValue(value.toString());
+        }
+        if (!ignore(false)) {
+            put(new JsonPrimitive(value));
+        }
+        return this;
+    }
+
+    /**
+     * NaN and infinities are written as Strings, as reading the lenient JSON written by {@link Gson} gives them.
+     */
+    private JsonWriter nonFiniteValue(String value) {
+        if (!isLenient()) {
+            throw new IllegalArgumentException("JSON forbids NaN and infinities: " + value);
+        }
+        if (!ignore(false)) {
+            put(new JsonPrimitive(value));
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!stack.isEmpty()) {
+            throw new IOException("Incomplete document");
+        }
+        closed = true;
+    }
+
+    /**
+     * Writes a value to the writer it was given to.
+     */
+    @FunctionalInterface
+    public interface ValueWriter {
+        void write() throws IOException;
+    }
+
+    /**
+     * An array or object being written.
+     */
+    private static final class Frame {
+        private final JsonElement element;
+        /**
+         * The node of the paths to ignore under the element, null when nothing is ignored under it.
+         */
+        private final PathNode node;
+        /**
+         * The members of an object of a sorted tree, added to the object when it ends.
+         */
+        private final Members members;
+
+        private Frame(JsonElement element, PathNode node, Members members) {
+            this.element = element;
+            this.node = node;
+            this.members = members;
+        }
+
+        private void add(String name, JsonElement value) {
+            if (members != null) {
+                members.add(name, value);
+            } else {
+                ((JsonObject) element).add(name, value);
+            }
+        }
+    }
+
+    /**
+     * The members of an object, in the order they were written.
+     */
+    private static final class Members {
+        private final List<String> names = new ArrayList<>();
+        private final List<JsonElement> values = new ArrayList<>();
+        private boolean sorted = true;
+
+        private void add(String name, JsonElement value) {
+            if (sorted && !names.isEmpty() && names.get(names.size() - 1).compareTo(name) > 0) {
+                sorted = false;
+            }
+            names.add(name);
+            values.add(value);
+        }
+
+        private void addTo(JsonObject object) {
+            if (sorted) {
+                for (int i = 0; i < names.size(); ++i) {
+                    object.add(names.get(i), values.get(i));
+                }
+                return;
+            }
+            List<Integer> order = new ArrayList<>(names.size());
+            for (int i = 0; i < names.size(); ++i) {
+                order.add(i);
+            }
+            order.sort((first, second) -> names.get(first).compareTo(names.get(second)));
+            for (int i : order) {
+                object.add(names.get(i), values.get(i));
+            }
+        }
+    }
+
+    /**
+     * A segment of the field paths to ignore.
+     */
+    private static final class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private boolean ignored;
+
+        private static PathNode of(Set<String> paths) {
+            if (paths.isEmpty()) {
+                return null;
+            }
+            PathNode root = new PathNode();
+            for (String path : paths) {
+                PathNode node = root;
+                for (String segment : path.split(PATH_SEPARATOR_PATTERN)) {
+                    node = node.children.computeIfAbsent(segment, k -> new PathNode());
+                }
+                node.ignored = true;
+            }
+            return root;
+        }
+    }
+}
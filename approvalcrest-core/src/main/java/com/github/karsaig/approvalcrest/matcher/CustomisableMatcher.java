@@ -164,4 +164,75 @@ public interface CustomisableMatcher<T, U extends CustomisableMatcher<T, U>> ext
      * @return the instance of the matcher
      */
     U sortField(String... fieldPaths);
+
+    /**
+     * Specify to write Maps as JSON objects keyed by the String form of their keys, in the order of the keys, instead of
+     * arrays of entries. The String form of a String, primitive or enum key is {@link String#valueOf(Object)}, of any
+     * other key it is its JSON. A Map with two keys of the same String form is written as an array of entries.
+     * The keys become field names, so paths to ignore or to sort can go through them.
+     * Example:
+     * <pre>sameBeanAs(expected).withMapsAsObjects()</pre>
+     *
+     * @return the instance of the matcher
+     * @throws UnsupportedOperationException if the matcher doesn't support it
+     */
+    default U withMapsAsObjects() {
+        throw new UnsupportedOperationException("withMapsAsObjects is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Specify to read the fields of beans with accessors generated once per class, in place of reflection, both when
+     * looking for circular references and when serialising them. The JSON written is the same.
+     * Example:
+     * <pre>sameBeanAs(expected).withGeneratedFieldAccessors()</pre>
+     *
+     * @return the instance of the matcher
+     * @throws UnsupportedOperationException if the matcher doesn't support it
+     */
+    default U withGeneratedFieldAccessors() {
+        throw new UnsupportedOperationException("withGeneratedFieldAccessors is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Specify to write arrays of numbers on one line, or in rows of numbers if the line would be too long, instead of
+     * one number per line. Only the layout of the JSON changes, approved files written before still match.
+     * Example:
+     * <pre>sameJsonAsApproved().withNumberArraysInRows()</pre>
+     *
+     * @return the instance of the matcher
+     * @throws UnsupportedOperationException if the matcher doesn't support it
+     */
+    default U withNumberArraysInRows() {
+        throw new UnsupportedOperationException("withNumberArraysInRows is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Specify the pattern of the class names of lazy loading proxies, which are then written without reading their
+     * fields, so they are not loaded: as the object a proxy unwrapper returns for them, or as a placeholder naming the
+     * type they stand for, <code>{"$proxy": "com.example.Customer"}</code>. Once a pattern or an unwrapper is given, JDK
+     * dynamic proxies are treated so too.
+     * Example:
+     * <pre>sameBeanAs(expected).withProxyClasses(containsString("$HibernateProxy$"))</pre>
+     *
+     * @param classNamePattern the Hamcrest matcher used to match the names of proxy classes.
+     * @return the instance of the matcher
+     * @throws UnsupportedOperationException if the matcher doesn't support it
+     */
+    default U withProxyClasses(Matcher<String> classNamePattern) {
+        throw new UnsupportedOperationException("withProxyClasses is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Specify a function returning the object a proxy stands for, without initialising the proxy, or null if the
+     * object is not loaded yet. The proxy is then written, and checked for circular references, as the object returned.
+     * Example:
+     * <pre>sameBeanAs(expected).withProxyUnwrapper(p -> Hibernate.isInitialized(p) ? Hibernate.unproxy(p) : null)</pre>
+     *
+     * @param unwrapper the {@link Function} unwrapping proxies.
+     * @return the instance of the matcher
+     * @throws UnsupportedOperationException if the matcher doesn't support it
+     */
+    default U withProxyUnwrapper(Function<Object, Object> unwrapper) {
+        throw new UnsupportedOperationException("withProxyUnwrapper is not supported by " + getClass().getName());
+    }
 }
\ No newline at end of file
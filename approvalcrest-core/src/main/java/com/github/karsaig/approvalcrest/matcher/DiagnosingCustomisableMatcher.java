@@ -11,13 +11,12 @@ package com.github.karsaig.approvalcrest.matcher;
 
 import com.github.karsaig.approvalcrest.MatcherConfiguration;
 import com.github.karsaig.approvalcrest.PathNullPointerException;
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import org.hamcrest.Description;
 import org.hamcrest.DiagnosingMatcher;
 import org.hamcrest.Matcher;
-import org.json.JSONException;
-import org.skyscreamer.jsonassert.JSONAssert;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -25,11 +24,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 
 import static com.github.karsaig.approvalcrest.BeanFinder.findBeanAt;
 import static com.github.karsaig.approvalcrest.CyclicReferenceDetector.getClassesWithCircularReferences;
-import static com.github.karsaig.approvalcrest.FieldsIgnorer.MARKER;
 import static com.github.karsaig.approvalcrest.FieldsIgnorer.findPaths;
 import static com.github.karsaig.approvalcrest.matcher.GsonProvider.gson;
 
@@ -38,7 +35,6 @@ import static com.github.karsaig.approvalcrest.matcher.GsonProvider.gson;
  * ignore in the comparison, or fields to be matched with a custom matcher
  */
 public class DiagnosingCustomisableMatcher<T> extends AbstractDiagnosingMatcher<T> implements CustomisableMatcher<T, DiagnosingCustomisableMatcher<T>> {
-    private static final Pattern MARKER_PATTERN = Pattern.compile(MARKER);
     protected final Set<Class<?>> circularReferenceTypes = new HashSet<>();
     protected final T expected;
     private GsonConfiguration configuration;
@@ -145,19 +141,18 @@ public class DiagnosingCustomisableMatcher<T> extends AbstractDiagnosingMatcher<
 
 
     private boolean assertEquals(String expectedJson, String actualJson, Description mismatchDescription) {
-        try {
-            JSONAssert.assertEquals(expectedJson, actualJson, true);
-        } catch (AssertionError | JSONException e) {
-            return appendMismatchDescription(mismatchDescription, expectedJson, actualJson, e.getMessage());
+        Throwable difference = JsonAssertions.compare(expectedJson, actualJson);
+        if (difference != null) {
+            return appendMismatchDescription(mismatchDescription, expectedJson, actualJson, difference.getMessage());
         }
 
         return true;
     }
 
     private void appendFieldJsonSnippet(Object actual, Description mismatchDescription, Gson gson) {
-        JsonElement jsonTree = gson.toJsonTree(actual);
+        JsonElement jsonTree = SortMarkingJsonTreeWriter.toJsonTree(gson, actual).get();
         if (!jsonTree.isJsonPrimitive() && !jsonTree.isJsonNull()) {
-            mismatchDescription.appendText("\n" + gson.toJson(actual));
+            mismatchDescription.appendText("\n" + gson.toJson(jsonTree));
         }
     }
 
@@ -175,11 +170,8 @@ public class DiagnosingCustomisableMatcher<T> extends AbstractDiagnosingMatcher<
         set.addAll(matcherConfiguration.getCustomMatchers().keySet());
         JsonElement filteredJson = findPaths(gson, object, set, matcherConfiguration.getPatternsToSort(), matcherConfiguration.getPathsToSort());
 
-        return removeSetMarker(gson.toJson(filteredJson));
-    }
-
-    private String removeSetMarker(String json) {
-        return MARKER_PATTERN.matcher(json).replaceAll("");
+        String json = gson.toJson(filteredJson);
+        return matcherConfiguration.isWriteNumberArraysInRows() ? NumberArrayRows.rewrite(json) : json;
     }
 
     @Override
@@ -233,6 +225,36 @@ public class DiagnosingCustomisableMatcher<T> extends AbstractDiagnosingMatcher<
         return this;
     }
 
+    @Override
+    public DiagnosingCustomisableMatcher<T> withMapsAsObjects() {
+        matcherConfiguration.writeMapsAsObjects();
+        return this;
+    }
+
+    @Override
+    public DiagnosingCustomisableMatcher<T> withGeneratedFieldAccessors() {
+        matcherConfiguration.readFieldsWithGeneratedAccessors();
+        return this;
+    }
+
+    @Override
+    public DiagnosingCustomisableMatcher<T> withNumberArraysInRows() {
+        matcherConfiguration.writeNumberArraysInRows();
+        return this;
+    }
+
+    @Override
+    public DiagnosingCustomisableMatcher<T> withProxyClasses(Matcher<String> classNamePattern) {
+        matcherConfiguration.addProxyClassNamePattern(classNamePattern);
+        return this;
+    }
+
+    @Override
+    public DiagnosingCustomisableMatcher<T> withProxyUnwrapper(Function<Object, Object> unwrapper) {
+        matcherConfiguration.addProxyUnwrapper(unwrapper);
+        return this;
+    }
+
     @Override
     public String toString() {
         return "SameBeanAs matcher";
@@ -0,0 +1,212 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import static com.github.karsaig.approvalcrest.matcher.ReflectiveAdapters.areSupertypesWrittenReflectively;
+import static com.github.karsaig.approvalcrest.matcher.ReflectiveAdapters.chooseAdapter;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.github.karsaig.approvalcrest.ApprovedDto;
+import com.github.karsaig.approvalcrest.ApprovedDtoAccessor;
+import com.github.karsaig.approvalcrest.ApprovedDtoAccessor.Property;
+import com.github.karsaig.approvalcrest.FieldReader;
+import com.github.karsaig.approvalcrest.IgnoreRules;
+import com.github.karsaig.approvalcrest.Records;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.internal.$Gson$Types;
+import com.google.gson.internal.Excluder;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes the beans Gson would write with its reflective adapter by reading their fields once per object, in place of
+ * the two {@link Field#get(Object)} calls the reflective adapter makes for each field. Classes annotated with
+ * {@link ApprovedDto} are read by the {@link ApprovedDtoAccessor} generated for them at compile time, records by a
+ * {@link FieldReader} calling the accessors of their components, other classes by a {@link FieldReader} if the matcher
+ * asked for it. The fields, their names and the adapters of their values are chosen the way the reflective adapter
+ * chooses them.
+ * <p>
+ * Gson picks the adapter of the runtime type of a value over the adapter of its declared type by checking whether they
+ * are reflective, which the adapters of this factory are not. So a type is only written by this factory if all of its
+ * supertypes are written by reflective adapters too, and a value of a subtype, which Gson would write with the adapter of
+ * the subtype, is passed on to that adapter. Types with fields using {@link JsonAdapter} are left to Gson. Reading is
+ * left to the reflective adapter.
+ */
+final class GeneratedAccessorTypeAdapterFactory implements TypeAdapterFactory {
+
+    private final IgnoreRules ignoreRules;
+    private final boolean readFieldsOfEveryClass;
+
+    /**
+     * @param ignoreRules            the ignore rules of the exclusion strategy of the {@link Gson}, applied to the fields
+     *                               of the generated accessors
+     * @param readFieldsOfEveryClass whether to read the fields of classes not annotated with {@link ApprovedDto} with a
+     *                               {@link FieldReader}
+     */
+    GeneratedAccessorTypeAdapterFactory(IgnoreRules ignoreRules, boolean readFieldsOfEveryClass) {
+        this.ignoreRules = ignoreRules;
+        this.readFieldsOfEveryClass = readFieldsOfEveryClass;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        Class<T> rawType = (Class<T>) type.getRawType();
+        if (!(delegate instanceof ReflectiveTypeAdapterFactory.Adapter) || rawType.isInterface()) {
+            return delegate;
+        }
+        ApprovedDtoAccessor<T> accessor = ApprovedDtoAccessor.of(rawType);
+        boolean isRecord = Records.isRecord(rawType);
+        if ((accessor == null && !isRecord && !readFieldsOfEveryClass) || !areSupertypesWrittenReflectively(gson, this, rawType)) {
+            return delegate;
+        }
+        if (accessor != null) {
+            return new Adapter<>(gson, delegate, rawType, getBoundProperties(gson, accessor), accessor::read);
+        }
+        List<Field> fields = new ArrayList<>();
+        List<BoundField> boundFields = getBoundFields(gson, type, fields);
+        if (boundFields == null) {
+            return delegate;
+        }
+        FieldReader reader = isRecord ? FieldReader.ofRecordComponents(fields) : FieldReader.of(fields);
+        return new Adapter<>(gson, delegate, rawType, boundFields, reader::read);
+    }
+
+    /**
+     * Binds the fields of the generated accessor like {@code ReflectiveTypeAdapterFactory} binds the fields it finds,
+     * with the field name patterns of the exclusion strategy applied through the {@link IgnoreRules} it was made of.
+     * Excluded fields are still read by the accessor, but not written.
+     */
+    private List<BoundField> getBoundProperties(Gson gson, ApprovedDtoAccessor<?> accessor) {
+        Excluder excluder = gson.excluder();
+        List<BoundField> boundFields = new ArrayList<>();
+        for (Property property : accessor.getProperties()) {
+            Class<?> rawType = TypeToken.get(property.getType()).getRawType();
+            if (excluder.excludeClass(rawType, true) || ignoreRules.isFieldIgnored(property.getDeclaringClass(), property.getFieldName())) {
+                boundFields.add(null);
+            } else {
+                String name = property.getSerializedName() == null ? property.getFieldName() : property.getSerializedName();
+                boundFields.add(new BoundField(name, property.getType(), gson.getAdapter(TypeToken.get(property.getType()))));
+            }
+        }
+        return boundFields;
+    }
+
+    /**
+     * Collects the serialised fields like {@code ReflectiveTypeAdapterFactory} does, the fields declared by the type
+     * first, then the fields of its superclasses.
+     *
+     * @param fields collects the fields bound, in the order of their bindings
+     * @return the fields or null if any of them uses {@link JsonAdapter}
+     */
+    private static List<BoundField> getBoundFields(Gson gson, TypeToken<?> type, List<Field> fields) {
+        Excluder excluder = gson.excluder();
+        List<BoundField> boundFields = new ArrayList<>();
+        Class<?> rawType = type.getRawType();
+        while (rawType != Object.class) {
+            for (Field field : rawType.getDeclaredFields()) {
+                if (excluder.excludeClass(field.getType(), true) || excluder.excludeField(field, true)) {
+                    continue;
+                }
+                if (field.getAnnotation(JsonAdapter.class) != null) {
+                    return null;
+                }
+                Type fieldType = $Gson$Types.resolve(type.getType(), rawType, field.getGenericType());
+                boundFields.add(new BoundField(getFieldName(gson, field), fieldType, gson.getAdapter(TypeToken.get(fieldType))));
+                fields.add(field);
+            }
+            type = TypeToken.get($Gson$Types.resolve(type.getType(), rawType, rawType.getGenericSuperclass()));
+            rawType = type.getRawType();
+        }
+        return boundFields;
+    }
+
+    private static String getFieldName(Gson gson, Field field) {
+        SerializedName serializedName = field.getAnnotation(SerializedName.class);
+        return serializedName == null ? gson.fieldNamingStrategy().translateName(field) : serializedName.value();
+    }
+
+    /**
+     * @return true if the adapter was created by this factory
+     */
+    static boolean isGenerated(TypeAdapter<?> adapter) {
+        return adapter instanceof Adapter;
+    }
+
+    private static final class BoundField {
+        private final String name;
+        private final Type type;
+        private final TypeAdapter<?> adapter;
+
+        private BoundField(String name, Type type, TypeAdapter<?> adapter) {
+            this.name = name;
+            this.type = type;
+            this.adapter = adapter;
+        }
+    }
+
+    private static final class Adapter<T> extends TypeAdapter<T> {
+        private final Gson gson;
+        private final TypeAdapter<T> delegate;
+        private final Class<? super T> rawType;
+        private final BoundField[] boundFields;
+        private final Function<T, Object[]> reader;
+
+        /**
+         * @param boundFields the fields in the order of the values read, null for a value not to write
+         * @param reader      reads the values of the fields of an object
+         */
+        private Adapter(Gson gson, TypeAdapter<T> delegate, Class<? super T> rawType, List<BoundField> boundFields, Function<T, Object[]> reader) {
+            this.gson = gson;
+            this.delegate = delegate;
+            this.rawType = rawType;
+            this.boundFields = boundFields.toArray(new BoundField[0]);
+            this.reader = reader;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            if (value.getClass() != rawType) {
+                ((TypeAdapter<Object>) gson.getAdapter(value.getClass())).write(out, value);
+                return;
+            }
+            Object[] fieldValues = reader.apply(value);
+            out.beginObject();
+            for (int i = 0; i < boundFields.length; ++i) {
+                // like the reflective adapter, a field referencing the object itself is left out, e.g. Throwable.cause
+                if (boundFields[i] != null && fieldValues[i] != value) {
+                    out.name(boundFields[i].name);
+                    writeField(out, boundFields[i], fieldValues[i]);
+                }
+            }
+            out.endObject();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writeField(JsonWriter out, BoundField boundField, Object fieldValue) throws IOException {
+            ((TypeAdapter<Object>) chooseAdapter(gson, boundField.type, boundField.adapter, fieldValue)).write(out, fieldValue);
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            return delegate.read(in);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.github.karsaig.approvalcrest.InstanceKey;
+import com.github.karsaig.approvalcrest.MatcherConfiguration;
+
+import com.google.gson.Gson;
+
+/**
+ * Key of the {@link Gson} instances cached by {@link GsonProvider}, made of everything the built {@link Gson} depends
+ * on: the types and field name patterns to ignore, the Map layout, the way fields are read, the proxy rules, whether
+ * there are paths to sort, the circular reference types and the additional {@link GsonConfiguration}.
+ * <p>
+ * The field and class name patterns, the proxy unwrappers and the type adapters of the {@link GsonConfiguration} can
+ * hold any state, so they are compared by identity. The patterns and unwrappers are compared with their {@code equals}
+ * if they implement it, see {@link InstanceKey}.
+ */
+final class GsonFingerprint {
+
+    private final Set<Class<?>> typesToIgnore;
+    private final List<InstanceKey> patternsToIgnore;
+    private final boolean writeMapsAsObjects;
+    private final boolean readFieldsWithGeneratedAccessors;
+    private final List<InstanceKey> proxyClassNamePatterns;
+    private final List<InstanceKey> proxyUnwrappers;
+    private final boolean sortingPaths;
+    private final Set<Class<?>> circularReferenceTypes;
+    private final List<Identity> typeAdapterFactories;
+    private final Map<Object, List<Identity>> typeAdapters;
+    private final Map<Object, List<Identity>> typeHierarchyAdapters;
+    private final int hashCode;
+
+    GsonFingerprint(MatcherConfiguration matcherConfiguration, Set<Class<?>> circularReferenceTypes, GsonConfiguration additionalConfig) {
+        this.typesToIgnore = new HashSet<>(matcherConfiguration.getTypesToIgnore());
+        this.patternsToIgnore = InstanceKey.of(matcherConfiguration.getPatternsToIgnore());
+        this.writeMapsAsObjects = matcherConfiguration.isWriteMapsAsObjects();
+        this.readFieldsWithGeneratedAccessors = matcherConfiguration.isReadFieldsWithGeneratedAccessors();
+        this.proxyClassNamePatterns = InstanceKey.of(matcherConfiguration.getProxyClassNamePatterns());
+        this.proxyUnwrappers = InstanceKey.of(matcherConfiguration.getProxyUnwrappers());
+        this.sortingPaths = !matcherConfiguration.getPathsToSort().isEmpty();
+        this.circularReferenceTypes = new HashSet<>(circularReferenceTypes);
+        this.typeAdapterFactories = new ArrayList<>();
+        this.typeAdapters = new HashMap<>();
+        this.typeHierarchyAdapters = new HashMap<>();
+        if (additionalConfig != null) {
+            typeAdapterFactories.addAll(identities(additionalConfig.getTypeAdapterFactories()));
+            additionalConfig.getTypeAdapters().forEach((type, adapters) -> typeAdapters.put(type, identities(adapters)));
+            additionalConfig.getTypeHierarchyAdapter().forEach((type, adapters) -> typeHierarchyAdapters.put(type, identities(adapters)));
+        }
+        this.hashCode = Objects.hash(this.typesToIgnore, patternsToIgnore, writeMapsAsObjects, readFieldsWithGeneratedAccessors, proxyClassNamePatterns, proxyUnwrappers, sortingPaths, this.circularReferenceTypes, typeAdapterFactories, typeAdapters, typeHierarchyAdapters);
+    }
+
+    private static List<Identity> identities(Collection<?> objects) {
+        List<Identity> result = new ArrayList<>();
+        if (objects != null) {
+            for (Object object : objects) {
+                result.add(new Identity(object));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GsonFingerprint that = (GsonFingerprint) o;
+        return hashCode == that.hashCode
+                && typesToIgnore.equals(that.typesToIgnore)
+                && patternsToIgnore.equals(that.patternsToIgnore)
+                && writeMapsAsObjects == that.writeMapsAsObjects
+                && readFieldsWithGeneratedAccessors == that.readFieldsWithGeneratedAccessors
+                && proxyClassNamePatterns.equals(that.proxyClassNamePatterns)
+                && proxyUnwrappers.equals(that.proxyUnwrappers)
+                && sortingPaths == that.sortingPaths
+                && circularReferenceTypes.equals(that.circularReferenceTypes)
+                && typeAdapterFactories.equals(that.typeAdapterFactories)
+                && typeAdapters.equals(that.typeAdapters)
+                && typeHierarchyAdapters.equals(that.typeHierarchyAdapters);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    private static final class Identity {
+        private final Object object;
+
+        private Identity(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity && ((Identity) o).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+}
@@ -9,20 +9,32 @@
  */
 package com.github.karsaig.approvalcrest.matcher;
 
-import static com.github.karsaig.approvalcrest.FieldsIgnorer.MARKER;
-import static com.google.common.collect.Sets.newTreeSet;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static org.apache.commons.lang3.ClassUtils.isPrimitiveOrWrapper;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-
-import org.hamcrest.Matcher;
-
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.github.karsaig.approvalcrest.ApprovedDtoAccessor;
+import com.github.karsaig.approvalcrest.IgnoreRules;
 import com.github.karsaig.approvalcrest.MatcherConfiguration;
+import com.github.karsaig.approvalcrest.ProxyRules;
+import com.github.karsaig.approvalcrest.Records;
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
+import com.github.karsaig.approvalcrest.matcher.LeafSerialiser.Value;
 import com.github.karsaig.approvalcrest.matcher.typeadapters.ClassAdapter;
 import com.github.karsaig.approvalcrest.matcher.typeadapters.DateAdapter;
 import com.github.karsaig.approvalcrest.matcher.typeadapters.InstantAdapter;
@@ -32,13 +44,14 @@ import com.github.karsaig.approvalcrest.matcher.typeadapters.LocalTimeAdapter;
 import com.github.karsaig.approvalcrest.matcher.typeadapters.OffsetDateTimeAdapter;
 import com.github.karsaig.approvalcrest.matcher.typeadapters.OffsetTimeAdapter;
 import com.github.karsaig.approvalcrest.matcher.typeadapters.PathTypeAdapter;
+import com.github.karsaig.approvalcrest.matcher.typeadapters.PrimitiveArrayAdapter;
 import com.github.karsaig.approvalcrest.matcher.typeadapters.ThrowableTypeAdapterFactory;
 import com.github.karsaig.approvalcrest.matcher.typeadapters.ZonedDateTimeAdapter;
 
 import com.google.common.base.Optional;
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Ordering;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
@@ -48,15 +61,28 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
 import com.google.gson.TypeAdapterFactory;
 import com.google.gson.graph.GraphAdapterBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Provides an instance of {@link Gson}. If any class type has been ignored on the matcher, the {@link Gson} provided
- * will include an {@link ExclusionStrategy} which will skip the serialisation of fields for that type.
+ * will include an {@link ExclusionStrategy} which will skip the serialisation of fields for that type. Instances are
+ * cached by the {@link GsonFingerprint} of their configuration.
  */
 @SuppressWarnings("rawtypes")
 class GsonProvider {
+
+    private static final int GSON_CACHE_SIZE = 64;
+
+    /**
+     * Built {@link Gson} instances, so Gson's type adapter cache is kept between assertions with the same configuration.
+     */
+    private static final Cache<GsonFingerprint, Gson> GSON_CACHE = CacheBuilder.newBuilder().maximumSize(GSON_CACHE_SIZE).build();
+
     /**
      * Returns a {@link Gson} instance containing {@link ExclusionStrategy} based on the object types to ignore during
      * serialisation.
@@ -79,17 +105,45 @@ class GsonProvider {
      * @return an instance of {@link Gson}
      */
     public static Gson gson(MatcherConfiguration matcherConfiguration, Set<Class<?>> circularReferenceTypes, GsonConfiguration additionalConfig) {
+        GsonFingerprint fingerprint = new GsonFingerprint(matcherConfiguration, circularReferenceTypes, additionalConfig);
+        try {
+            return GSON_CACHE.get(fingerprint, () -> createGson(matcherConfiguration, circularReferenceTypes, additionalConfig));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Gson createGson(MatcherConfiguration matcherConfiguration, Set<Class<?>> circularReferenceTypes, GsonConfiguration additionalConfig) {
         GsonBuilder gsonBuilder = initGson();
+        // the Set and Map serialisers need the Gson they are registered on, which only exists after create()
+        AtomicReference<Gson> gsonReference = new AtomicReference<>();
 
-        defaultGsonConfiguration(gsonBuilder, matcherConfiguration, circularReferenceTypes);
+        defaultGsonConfiguration(gsonBuilder, new LeafSerialiser(gsonReference::get), matcherConfiguration, circularReferenceTypes);
         if (additionalConfig != null) {
             additionalConfiguration(additionalConfig, gsonBuilder);
         }
+        // registered after the other adapters to wrap them; the graph adapters number the objects as they are written, so
+        // skipping values would change the numbers of the others
+        if (circularReferenceTypes.isEmpty()) {
+            gsonBuilder.registerTypeAdapterFactory(new IgnoredValueTypeAdapterFactory());
+        }
+        // consulted before it, it only replaces the reflective adapters, which are never wrapped; it has nothing to write
+        // without generated accessors, records or the fields of every class to read
+        if (ApprovedDtoAccessor.areAnyGenerated() || Records.areSupported() || matcherConfiguration.isReadFieldsWithGeneratedAccessors()) {
+            gsonBuilder.registerTypeAdapterFactory(new GeneratedAccessorTypeAdapterFactory(matcherConfiguration.getIgnoreRules(), matcherConfiguration.isReadFieldsWithGeneratedAccessors()));
+        }
+        // consulted before it, it wraps the adapters writing objects from their fields, generated ones included
+        if (circularReferenceTypes.isEmpty() && matcherConfiguration.getPathsToSort().isEmpty()) {
+            gsonBuilder.registerTypeAdapterFactory(new MemoizingTypeAdapterFactory());
+        }
 
-        return gsonBuilder.create();
+        Gson gson = gsonBuilder.create();
+        gsonReference.set(gson);
+        return gson;
     }
 
-    private static void defaultGsonConfiguration(GsonBuilder gsonBuilder, MatcherConfiguration matcherConfiguration, Set<Class<?>> circularReferenceTypes) {
+    private static void defaultGsonConfiguration(GsonBuilder gsonBuilder, LeafSerialiser serialiser, MatcherConfiguration matcherConfiguration, Set<Class<?>> circularReferenceTypes) {
 
         if (!circularReferenceTypes.isEmpty()) {
             registerCircularReferenceTypes(circularReferenceTypes, gsonBuilder);
@@ -108,14 +162,22 @@ class GsonProvider {
         gsonBuilder.registerTypeAdapter(ZonedDateTimeAdapter.ZONED_DATE_TIME_TYPE, new ZonedDateTimeAdapter());
 
         gsonBuilder.registerTypeAdapterFactory(PathTypeAdapter.FACTORY);
+        gsonBuilder.registerTypeAdapterFactory(PrimitiveArrayAdapter.FACTORY);
+        gsonBuilder.registerTypeAdapterFactory(new JdkValueTypeAdapterFactory());
 
-        registerSetSerialisation(gsonBuilder);
+        registerSetSerialisation(gsonBuilder, serialiser);
 
-        registerMapSerialisation(gsonBuilder);
+        registerMapSerialisation(gsonBuilder, serialiser, matcherConfiguration.isWriteMapsAsObjects());
 
-        markSetAndMapFields(gsonBuilder);
+        sortArraysOfSetAndMapFields(gsonBuilder);
 
         registerExclusionStrategies(gsonBuilder, matcherConfiguration);
+
+        // registered after the Set and Map serialisers, so they don't iterate over proxies
+        ProxyRules proxyRules = matcherConfiguration.getProxyRules();
+        if (proxyRules.isConfigured()) {
+            gsonBuilder.registerTypeAdapterFactory(new ProxyTypeAdapterFactory(proxyRules));
+        }
     }
 
     private static void additionalConfiguration(GsonConfiguration additionalConfig, GsonBuilder gsonBuilder) {
@@ -143,52 +205,76 @@ class GsonProvider {
     }
 
     private static void registerExclusionStrategies(GsonBuilder gsonBuilder, MatcherConfiguration matcherConfiguration) {
-        if (matcherConfiguration.getTypesToIgnore().isEmpty() && matcherConfiguration.getPatternsToIgnore().isEmpty()) {
+        IgnoreRules ignoreRules = matcherConfiguration.getIgnoreRules();
+        if (ignoreRules.isEmpty()) {
             return;
         }
 
         gsonBuilder.setExclusionStrategies(new ExclusionStrategy() {
             @Override
             public boolean shouldSkipField(FieldAttributes f) {
-                for (Matcher<String> p : matcherConfiguration.getPatternsToIgnore()) {
-                    if (p.matches(f.getName())) {
-                        return true;
-                    }
-                }
-                return false;
+                return ignoreRules.isFieldIgnored(f.getDeclaringClass(), f.getName());
             }
 
             @Override
             public boolean shouldSkipClass(Class<?> clazz) {
-                return (matcherConfiguration.getTypesToIgnore().contains(clazz));
+                return ignoreRules.isTypeIgnored(clazz);
             }
         });
     }
 
-    private static void markSetAndMapFields(GsonBuilder gsonBuilder) {
-        gsonBuilder.setFieldNamingStrategy(f -> {
-            if (Set.class.isAssignableFrom(f.getType()) || Map.class.isAssignableFrom(f.getType())) {
-                return MARKER + f.getName();
+    private static void registerMapSerialisation(GsonBuilder gsonBuilder, LeafSerialiser serialiser, boolean writeMapsAsObjects) {
+        gsonBuilder.registerTypeHierarchyAdapter(Map.class, new SortedTreeAdapter<Map>((map, arraysToSort) -> {
+            List<SerialisedEntry> entries = serialiseEntries(map, serialiser);
+            for (SerialisedEntry entry : entries) {
+                arraysToSort.addAll(entry.key.arraysToSort());
+                arraysToSort.addAll(entry.value.arraysToSort());
             }
-            return f.getName();
-        });
+            if (writeMapsAsObjects) {
+                JsonObject object = objectOfEntriesOrderedByTheirKey(entries);
+                if (object != null) {
+                    return object;
+                }
+            }
+            Function<SerialisedEntry, String> order = orderEntriesByTheirJsonRepresentation(entries);
+            return arrayOfEntries(entries, order);
+        }));
     }
 
-    private static void registerMapSerialisation(GsonBuilder gsonBuilder) {
-        gsonBuilder.registerTypeHierarchyAdapter(Map.class, (JsonSerializer<Map>) (map, type, context) -> {
-            Gson gson = gsonBuilder.create();
-
-            ArrayListMultimap<String, Object> objects = mapObjectsByTheirJsonRepresentation(map, gson);
-            return arrayOfObjectsOrderedByTheirJsonRepresentation(gson, objects, map);
-        });
+    private static void registerSetSerialisation(GsonBuilder gsonBuilder, LeafSerialiser serialiser) {
+        gsonBuilder.registerTypeHierarchyAdapter(Set.class, new SortedTreeAdapter<Set>((set, arraysToSort) ->
+                arrayOfElementsOrderedByTheirJsonRepresentation(serialiser, set, arraysToSort)));
     }
 
-    private static void registerSetSerialisation(GsonBuilder gsonBuilder) {
-        gsonBuilder.registerTypeHierarchyAdapter(Set.class, (JsonSerializer<Set>) (set, type, context) -> {
-            Gson gson = gsonBuilder.create();
+    /**
+     * Tells the {@link SortMarkingJsonTreeWriter} to sort the arrays written for Set and Map fields. A field declared
+     * with type arguments is written with the adapter of its declared type, the other fields with the adapter of the
+     * runtime type of their value, like the fields declared as Object or a type variable, which are not sorted.
+     */
+    private static void sortArraysOfSetAndMapFields(GsonBuilder gsonBuilder) {
+        gsonBuilder.registerTypeAdapterFactory(new TypeAdapterFactory() {
+            @Override
+            public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+                Class<? super T> rawType = type.getRawType();
+                if (type.getType() instanceof Class || !Set.class.isAssignableFrom(rawType) && !Map.class.isAssignableFrom(rawType)) {
+                    return null;
+                }
+                TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+                return new TypeAdapter<T>() {
+                    @Override
+                    public void write(JsonWriter out, T value) throws IOException {
+                        if (out instanceof SortMarkingJsonTreeWriter) {
+                            ((SortMarkingJsonTreeWriter) out).sortNextArray();
+                        }
+                        delegate.write(out, value);
+                    }
 
-            Set<Object> orderedSet = orderSetByElementsJsonRepresentation(set, gson);
-            return arrayOfObjectsOrderedByTheirJsonRepresentation(gson, orderedSet);
+                    @Override
+                    public T read(JsonReader in) throws IOException {
+                        return delegate.read(in);
+                    }
+                };
+            }
         });
     }
 
@@ -200,73 +286,198 @@ class GsonProvider {
         graphAdapterBuilder.registerOn(gsonBuilder);
     }
 
-    @SuppressWarnings("unchecked")
-    private static Set<Object> orderSetByElementsJsonRepresentation(Set set, Gson gson) {
-        Set<Object> objects = newTreeSet(Comparator.comparing(gson::toJson));
-        objects.addAll(set);
-        return objects;
+    /**
+     * Serialises every element once, and orders them by their JSON text. Elements with the same JSON representation are
+     * written only once.
+     */
+    private static JsonArray arrayOfElementsOrderedByTheirJsonRepresentation(LeafSerialiser serialiser, Set set, Set<JsonArray> arraysToSort) {
+        List<Value> elements = new ArrayList<>(set.size());
+        for (Object object : set) {
+            Value element = serialiser.serialise(object);
+            arraysToSort.addAll(element.arraysToSort());
+            elements.add(element);
+        }
+        orderByJson(elements, Value::json);
+
+        JsonArray array = new JsonArray();
+        String previousJson = null;
+        for (Value element : elements) {
+            if (!element.json().equals(previousJson)) {
+                array.add(element.tree());
+                previousJson = element.json();
+            }
+        }
+        return array;
     }
 
     @SuppressWarnings("unchecked")
-    private static ArrayListMultimap<String, Object> mapObjectsByTheirJsonRepresentation(Map map, Gson gson) {
-        ArrayListMultimap<String, Object> objects = ArrayListMultimap.create();
+    private static List<SerialisedEntry> serialiseEntries(Map map, LeafSerialiser serialiser) {
+        List<SerialisedEntry> entries = new ArrayList<>(map.size());
         for (Entry<Object, Object> mapEntry : (Set<Map.Entry<Object, Object>>) map.entrySet()) {
-            objects.put(gson.toJson(mapEntry.getKey()).concat(gson.toJson(mapEntry.getValue())), mapEntry.getKey());
+            entries.add(new SerialisedEntry(mapEntry.getKey(), serialiser.serialise(mapEntry.getKey()), serialiser.serialise(mapEntry.getValue())));
         }
-        return objects;
+        return entries;
     }
 
-    private static JsonArray arrayOfObjectsOrderedByTheirJsonRepresentation(Gson gson, Set<Object> objects) {
-        JsonArray array = new JsonArray();
-        for (Object object : objects) {
-            array.add(gson.toJsonTree(object));
+    /**
+     * Orders the entries by the JSON text of their key and value. When the keys are distinct JSON strings, their JSON
+     * text alone gives the same order, as a JSON string is never the prefix of another, so the values are not written.
+     *
+     * @return the JSON representation the entries were ordered by
+     */
+    private static Function<SerialisedEntry, String> orderEntriesByTheirJsonRepresentation(List<SerialisedEntry> entries) {
+        if (entries.stream().allMatch(entry -> entry.key.isString())) {
+            orderByJson(entries, SerialisedEntry::keyJson);
+            if (!hasEqualNeighbours(entries, SerialisedEntry::keyJson)) {
+                return SerialisedEntry::keyJson;
+            }
         }
-        return array;
+        orderByJson(entries, SerialisedEntry::json);
+        return SerialisedEntry::json;
     }
 
-    private static JsonArray arrayOfObjectsOrderedByTheirJsonRepresentation(Gson gson, ArrayListMultimap<String, Object> objects, Map map) {
-        ImmutableList<String> sortedMapKeySet = Ordering.natural().immutableSortedCopy(objects.keySet());
+    private static JsonArray arrayOfEntries(List<SerialisedEntry> entries, Function<SerialisedEntry, String> jsonRepresentation) {
         JsonArray array = new JsonArray();
-        if (allKeysArePrimitiveOrStringOrEnum(sortedMapKeySet, objects)) {
-            for (String jsonRepresentation : sortedMapKeySet) {
-                List<Object> objectsInTheSet = objects.get(jsonRepresentation);
-                for (Object objectInTheSet : objectsInTheSet) {
-                    JsonObject jsonObject = new JsonObject();
-                    jsonObject.add(String.valueOf(objectInTheSet), gson.toJsonTree(map.get(objectInTheSet)));
-                    array.add(jsonObject);
-                }
+        if (allKeysArePrimitiveOrStringOrEnum(entries)) {
+            for (SerialisedEntry entry : entries) {
+                JsonObject jsonObject = new JsonObject();
+                jsonObject.add(String.valueOf(entry.keyObject), entry.value.tree());
+                array.add(jsonObject);
             }
         } else {
-            for (String jsonRepresentation : sortedMapKeySet) {
-                JsonArray keyValueArray = new JsonArray();
-                List<Object> objectsInTheSet = objects.get(jsonRepresentation);
-                for (Object objectInTheSet : objectsInTheSet) {
-                    keyValueArray.add(gson.toJsonTree(objectInTheSet));
-                    keyValueArray.add(gson.toJsonTree(map.get(objectInTheSet)));
-                    array.add(keyValueArray);
+            JsonArray keyValueArray = null;
+            String previousJson = null;
+            for (SerialisedEntry entry : entries) {
+                String json = jsonRepresentation.apply(entry);
+                if (!json.equals(previousJson)) {
+                    keyValueArray = new JsonArray();
+                    previousJson = json;
                 }
+                keyValueArray.add(entry.key.tree());
+                keyValueArray.add(entry.value.tree());
+                array.add(keyValueArray);
             }
         }
 
         return array;
     }
 
-    private static boolean allKeysArePrimitiveOrStringOrEnum(ImmutableList<String> sortedMapKeySet, ArrayListMultimap<String, Object> objects) {
-        for (String jsonRepresentation : sortedMapKeySet) {
-            List<Object> mapKeys = objects.get(jsonRepresentation);
-            for (Object object : mapKeys) {
-                if (!(isPrimitiveOrWrapper(object.getClass()) || object.getClass() == String.class || object.getClass().isEnum())) {
-                    return false;
-                }
+    /**
+     * Writes the entries to a JSON object, keyed by the String form of their keys, in the order of the keys.
+     *
+     * @return the JSON object or null if two keys have the same String form
+     */
+    private static JsonObject objectOfEntriesOrderedByTheirKey(List<SerialisedEntry> entries) {
+        Map<String, JsonElement> ordered = new TreeMap<>();
+        for (SerialisedEntry entry : entries) {
+            if (ordered.put(entry.keyString(), entry.value.tree()) != null) {
+                return null;
+            }
+        }
+        JsonObject object = new JsonObject();
+        for (Entry<String, JsonElement> entry : ordered.entrySet()) {
+            object.add(entry.getKey(), entry.getValue());
+        }
+        return object;
+    }
+
+    /**
+     * Sorts the values by their JSON text, unless they are in order already, like the contents of sorted collections.
+     */
+    private static <T> void orderByJson(List<T> values, Function<T, String> json) {
+        for (int i = 1; i < values.size(); ++i) {
+            if (json.apply(values.get(i - 1)).compareTo(json.apply(values.get(i))) > 0) {
+                values.sort(Comparator.comparing(json));
+                return;
+            }
+        }
+    }
+
+    private static <T> boolean hasEqualNeighbours(List<T> values, Function<T, String> json) {
+        for (int i = 1; i < values.size(); ++i) {
+            if (json.apply(values.get(i - 1)).equals(json.apply(values.get(i)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean allKeysArePrimitiveOrStringOrEnum(List<SerialisedEntry> entries) {
+        for (SerialisedEntry entry : entries) {
+            if (!isPrimitiveOrStringOrEnum(entry.keyObject.getClass())) {
+                return false;
             }
         }
         return true;
     }
 
+    private static boolean isPrimitiveOrStringOrEnum(Class<?> type) {
+        return isPrimitiveOrWrapper(type) || type == String.class || type.isEnum();
+    }
+
     private static GsonBuilder initGson() {
         return new GsonBuilder().serializeSpecialFloatingPointValues().setPrettyPrinting();
     }
 
+    private static final class SerialisedEntry {
+        private final Object keyObject;
+        private final Value key;
+        private final Value value;
+        private String json;
+
+        private SerialisedEntry(Object keyObject, Value key, Value value) {
+            this.keyObject = keyObject;
+            this.key = key;
+            this.value = value;
+        }
+
+        private String keyJson() {
+            return key.json();
+        }
+
+        private String keyString() {
+            if (keyObject == null || isPrimitiveOrStringOrEnum(keyObject.getClass())) {
+                return String.valueOf(keyObject);
+            }
+            return key.tree().toString();
+        }
+
+        private String json() {
+            if (json == null) {
+                json = key.json().concat(value.json());
+            }
+            return json;
+        }
+    }
+
+    /**
+     * Writes the tree the serialiser builds for a Set or Map, with the arrays of the Set and Map fields of its elements
+     * to be sorted, which the serialiser collects, see {@link SortMarkingJsonTreeWriter#writeTree(JsonWriter, JsonElement, Set)}.
+     */
+    private static final class SortedTreeAdapter<T> extends TypeAdapter<T> {
+        private final BiFunction<T, Set<JsonArray>, JsonElement> serialiser;
+
+        private SortedTreeAdapter(BiFunction<T, Set<JsonArray>, JsonElement> serialiser) {
+            this.serialiser = serialiser;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            Set<JsonArray> arraysToSort = Collections.newSetFromMap(new IdentityHashMap<>());
+            JsonElement tree = serialiser.apply(value, arraysToSort);
+            SortMarkingJsonTreeWriter.writeTree(out, tree, arraysToSort);
+        }
+
+        @Override
+        public T read(JsonReader in) {
+            throw new UnsupportedOperationException("Only for serialization!");
+        }
+    }
+
     private static class OptionalSerializer<T> implements JsonSerializer<Optional<T>> {
 
         @Override
@@ -0,0 +1,53 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import static org.apache.commons.lang3.ClassUtils.isPrimitiveOrWrapper;
+
+import java.io.IOException;
+
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Skips writing the values the {@link SortMarkingJsonTreeWriter} would drop as they belong to an ignored path, so
+ * collections, Sets, Maps and custom adapters under an ignored path are not serialised at all.
+ * <p>
+ * Leaf types are not worth wrapping. Reflective adapters are not wrapped either, as Gson picks the adapter of the
+ * runtime type of a field over the adapter of its declared type by checking whether they are reflective. Their fields
+ * are still read, but the values of any other type are skipped.
+ */
+final class IgnoredValueTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        if (delegate instanceof ReflectiveTypeAdapterFactory.Adapter || isLeaf(type.getRawType())) {
+            return delegate;
+        }
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                if (out instanceof SortMarkingJsonTreeWriter && ((SortMarkingJsonTreeWriter) out).isIgnoringValue()) {
+                    out.nullValue();
+                } else {
+                    delegate.write(out, value);
+                }
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                return delegate.read(in);
+            }
+        };
+    }
+
+    private static boolean isLeaf(Class<?> type) {
+        return isPrimitiveOrWrapper(type) || type == String.class || Enum.class.isAssignableFrom(type);
+    }
+}
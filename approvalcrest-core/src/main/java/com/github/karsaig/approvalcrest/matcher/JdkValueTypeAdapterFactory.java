@@ -0,0 +1,141 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import static com.github.karsaig.approvalcrest.matcher.ReflectiveAdapters.chooseAdapter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.time.Duration;
+import java.time.Period;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
+import com.github.karsaig.approvalcrest.LeafTypes;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.internal.$Gson$Types;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes the JDK value types Gson has no adapter for without reflecting on their private fields, which are not
+ * accessible from JDK 17 onwards. The JSON is the one the reflective adapter wrote, so approved files stay valid:
+ * a {@link Duration} is written as its seconds and nanos, a {@link Period} as its years, months and days, the primitive
+ * optionals as whether they are present and their value, and an {@link Optional} as its value, which is left out when
+ * the optional is empty. The value of an {@link Optional} is written with the adapter of its declared or runtime type,
+ * chosen the way the reflective adapter chooses it.
+ * <p>
+ * Gson has its own adapters for the other {@link LeafTypes}, like {@code UUID}, {@code BigDecimal} or {@code Locale}.
+ */
+final class JdkValueTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final TypeVariable<?> OPTIONAL_VALUE_TYPE = Optional.class.getTypeParameters()[0];
+
+    private static final TypeAdapter<Duration> DURATION = new WriteOnlyAdapter<Duration>() {
+        @Override
+        void writeFields(JsonWriter out, Duration value) throws IOException {
+            out.name("seconds").value(value.getSeconds());
+            out.name("nanos").value(value.getNano());
+        }
+    };
+
+    private static final TypeAdapter<Period> PERIOD = new WriteOnlyAdapter<Period>() {
+        @Override
+        void writeFields(JsonWriter out, Period value) throws IOException {
+            out.name("years").value(value.getYears());
+            out.name("months").value(value.getMonths());
+            out.name("days").value(value.getDays());
+        }
+    };
+
+    private static final TypeAdapter<OptionalInt> OPTIONAL_INT = new WriteOnlyAdapter<OptionalInt>() {
+        @Override
+        void writeFields(JsonWriter out, OptionalInt value) throws IOException {
+            out.name("isPresent").value(value.isPresent());
+            out.name("value").value(value.orElse(0));
+        }
+    };
+
+    private static final TypeAdapter<OptionalLong> OPTIONAL_LONG = new WriteOnlyAdapter<OptionalLong>() {
+        @Override
+        void writeFields(JsonWriter out, OptionalLong value) throws IOException {
+            out.name("isPresent").value(value.isPresent());
+            out.name("value").value(value.orElse(0L));
+        }
+    };
+
+    private static final TypeAdapter<OptionalDouble> OPTIONAL_DOUBLE = new WriteOnlyAdapter<OptionalDouble>() {
+        @Override
+        void writeFields(JsonWriter out, OptionalDouble value) throws IOException {
+            out.name("isPresent").value(value.isPresent());
+            out.name("value").value(value.orElse(0.0));
+        }
+    };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == Duration.class) {
+            return (TypeAdapter<T>) DURATION;
+        } else if (rawType == Period.class) {
+            return (TypeAdapter<T>) PERIOD;
+        } else if (rawType == OptionalInt.class) {
+            return (TypeAdapter<T>) OPTIONAL_INT;
+        } else if (rawType == OptionalLong.class) {
+            return (TypeAdapter<T>) OPTIONAL_LONG;
+        } else if (rawType == OptionalDouble.class) {
+            return (TypeAdapter<T>) OPTIONAL_DOUBLE;
+        } else if (rawType == Optional.class) {
+            Type valueType = $Gson$Types.resolve(type.getType(), rawType, OPTIONAL_VALUE_TYPE);
+            return (TypeAdapter<T>) new OptionalAdapter(gson, valueType, gson.getAdapter(TypeToken.get(valueType)));
+        }
+        return null;
+    }
+
+    private abstract static class WriteOnlyAdapter<T> extends TypeAdapter<T> {
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else {
+                out.beginObject();
+                writeFields(out, value);
+                out.endObject();
+            }
+        }
+
+        abstract void writeFields(JsonWriter out, T value) throws IOException;
+
+        @Override
+        public T read(JsonReader in) {
+            throw new UnsupportedOperationException("Only for serialization!");
+        }
+    }
+
+    private static final class OptionalAdapter extends WriteOnlyAdapter<Optional<?>> {
+        private final Gson gson;
+        private final Type valueType;
+        private final TypeAdapter<?> valueAdapter;
+
+        private OptionalAdapter(Gson gson, Type valueType, TypeAdapter<?> valueAdapter) {
+            this.gson = gson;
+            this.valueType = valueType;
+            this.valueAdapter = valueAdapter;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void writeFields(JsonWriter out, Optional<?> optional) throws IOException {
+            Object value = optional.orElse(null);
+            out.name("value");
+            ((TypeAdapter<Object>) chooseAdapter(gson, valueType, valueAdapter, value)).write(out, value);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import org.json.JSONException;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+/**
+ * Strict {@link JSONAssert} comparison for the matchers. Kept out of the matchers, so loading a matcher, like the
+ * {@link IsEqualMatcher} used for primitives, doesn't load JSONAssert and org.json.
+ */
+final class JsonAssertions {
+
+    private JsonAssertions() {
+    }
+
+    /**
+     * Compares the JSONs with {@link JSONAssert#assertEquals(String, String, boolean)} in strict mode. Equal texts are
+     * equal without being parsed, which matters for the large arrays JSONAssert compares element by element.
+     *
+     * @param expectedJson expected JSON
+     * @param actualJson   actual JSON
+     * @return null if the JSONs are equal, the {@link AssertionError} or {@link JSONException} describing the
+     * difference otherwise
+     */
+    static Throwable compare(String expectedJson, String actualJson) {
+        if (expectedJson.equals(actualJson)) {
+            return null;
+        }
+        try {
+            JSONAssert.assertEquals(expectedJson, actualJson, true);
+        } catch (AssertionError | JSONException e) {
+            return e;
+        }
+        return null;
+    }
+}
@@ -2,6 +2,8 @@ package com.github.karsaig.approvalcrest.matcher;
 
 import com.github.karsaig.approvalcrest.FileMatcherConfig;
 import com.github.karsaig.approvalcrest.MatcherConfiguration;
+import com.github.karsaig.approvalcrest.Sidecars;
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
 import com.github.karsaig.approvalcrest.matcher.file.AbstractDiagnosingFileMatcher;
 import com.github.karsaig.approvalcrest.matcher.file.FileStoreMatcherUtils;
 import com.google.gson.Gson;
@@ -11,9 +13,11 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
-import org.json.JSONException;
-import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -22,12 +26,10 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.Function;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.github.karsaig.approvalcrest.BeanFinder.findBeanAt;
 import static com.github.karsaig.approvalcrest.CyclicReferenceDetector.getClassesWithCircularReferences;
-import static com.github.karsaig.approvalcrest.FieldsIgnorer.MARKER;
 import static com.github.karsaig.approvalcrest.FieldsIgnorer.applySorting;
 import static com.github.karsaig.approvalcrest.FieldsIgnorer.findPaths;
 import static com.github.karsaig.approvalcrest.FieldsIgnorer.sortJsonFields;
@@ -57,11 +59,10 @@ import static com.github.karsaig.approvalcrest.FieldsIgnorer.sortJsonFields;
  * @author Andras_Gyuro
  */
 public class JsonMatcher<T> extends AbstractDiagnosingFileMatcher<T, JsonMatcher<T>> implements CustomisableMatcher<T, JsonMatcher<T>> {
-    private static final Pattern MARKER_PATTERN = Pattern.compile(MARKER);
-
     private final MatcherConfiguration matcherConfiguration = new MatcherConfiguration();
     private final Set<Class<?>> circularReferenceTypes = new HashSet<>();
     private Either expected;
+    private int sidecarThreshold = -1;
 
     private GsonConfiguration configuration;
 
@@ -73,7 +74,7 @@ public class JsonMatcher<T> extends AbstractDiagnosingFileMatcher<T, JsonMatcher
     public void describeTo(Description description) {
         Gson gson = GsonProvider.gson(matcherConfiguration, circularReferenceTypes, configuration);
         if (expected.isParsedJson()) {
-            description.appendText(filterJson(gson, expected.getParsedContent(), true));
+            description.appendText(filterParsedJson(gson, expected.getParsedContent(), true));
         } else {
             description.appendText(expected.getOriginalContent());
         }
@@ -138,17 +139,17 @@ public class JsonMatcher<T> extends AbstractDiagnosingFileMatcher<T, JsonMatcher
 
             String expectedJson = expected.getOriginalContent();
             if (expected.isParsedJson()) {
-                expectedJson = filterJson(gson, expected.getParsedContent(), fileMatcherConfig.isSortInputFile());
+                expectedJson = filterParsedJson(gson, expected.getParsedContent(), fileMatcherConfig.isSortInputFile());
             }
 
-            JsonElement actualJsonElement = getAsJsonElement(gson, actual);
-
             if (actual == null) {
                 matches = appendMismatchDescription(mismatchDescription, expectedJson, "null", "actual was null");
             } else {
-                String actualJson = filterJson(gson, actualJsonElement, true);
-
-                matches = assertEquals(expectedJson, actualJson, mismatchDescription);
+                if (sidecarThreshold < 0) {
+                    matches = assertEquals(expectedJson, serializeToJson(actual, gson), mismatchDescription);
+                } else {
+                    matches = assertEqualsWithSidecars(expectedJson, actual, gson, mismatchDescription);
+                }
                 if (!matches) {
                     matches = handleInPlaceOverwrite(actual, gson);
                 }
@@ -179,16 +180,6 @@ public class JsonMatcher<T> extends AbstractDiagnosingFileMatcher<T, JsonMatcher
         return false;
     }
 
-    private JsonElement getAsJsonElement(Gson gson, Object object) {
-        JsonElement result;
-        if (object instanceof String) {
-            result = JsonParser.parseString((String) object);
-        } else {
-            result = gson.toJsonTree(object);
-        }
-        return result;
-    }
-
     private void initExpectedFromFile() {
         expected = getExpectedFromFile(fileContent -> {
             try {
@@ -199,15 +190,24 @@ public class JsonMatcher<T> extends AbstractDiagnosingFileMatcher<T, JsonMatcher
         });
     }
 
-    private String filterJson(Gson gson, JsonElement jsonElement, boolean sortFile) {
+    /**
+     * Filters JSON that was parsed, whose fields are sorted only if asked for, unlike the trees of
+     * {@link SortMarkingJsonTreeWriter#toSortedJsonTree(Gson, Object, Set)}.
+     */
+    private String filterParsedJson(Gson gson, JsonElement jsonElement, boolean sortFile) {
+        sortJsonFields(jsonElement, sortFile);
+        return filterJson(gson, jsonElement, Collections.emptySet(), Collections.emptySet(), sortFile);
+    }
+
+    private String filterJson(Gson gson, JsonElement jsonElement, Set<JsonArray> arraysToSort, Set<JsonElement> reusedElements, boolean sortFile) {
         Set<String> set = new HashSet<>(matcherConfiguration.getPathsToIgnore());
 
         JsonElement filteredJson = findPaths(jsonElement, set);
         filterByFieldMatchers(filteredJson, matcherConfiguration.getPatternsToIgnore());
-        sortJsonFields(filteredJson, sortFile);
-        applySorting(filteredJson, matcherConfiguration.getPathsToSort(), matcherConfiguration.getPatternsToSort(), sortFile);
+        applySorting(filteredJson, arraysToSort, reusedElements, matcherConfiguration.getPathsToSort(), matcherConfiguration.getPatternsToSort(), sortFile);
 
-        return removeSetMarker(gson.toJson(filteredJson));
+        String json = gson.toJson(filteredJson);
+        return matcherConfiguration.isWriteNumberArraysInRows() ? NumberArrayRows.rewrite(json) : json;
     }
 
     private void filterByFieldMatchers(JsonElement jsonElement, List<Matcher<String>> matchers) {
@@ -246,32 +246,102 @@ public class JsonMatcher<T> extends AbstractDiagnosingFileMatcher<T, JsonMatcher
 
     private boolean assertEquals(String expectedJson, String actualJson,
                                  Description mismatchDescription) {
-        try {
-            JSONAssert.assertEquals(expectedJson, actualJson, true);
-        } catch (AssertionError e) {
-            return appendMismatchDescription(mismatchDescription, expectedJson, actualJson, getAssertMessage(fileStoreMatcherUtils, e));
-        } catch (JSONException e) {
-            return appendMismatchDescription(mismatchDescription, expectedJson, actualJson, getAssertMessage(fileStoreMatcherUtils, e));
+        Throwable difference = JsonAssertions.compare(expectedJson, actualJson);
+        if (difference != null) {
+            return appendMismatchDescription(mismatchDescription, expectedJson, actualJson, getAssertMessage(fileStoreMatcherUtils, difference));
         }
 
         return true;
     }
 
-    private String removeSetMarker(String json) {
-        return MARKER_PATTERN.matcher(json).replaceAll("");
+    /**
+     * Compares the references to the sidecar files first, which are equal if the values in the files are, and only if
+     * they differ, the JSONs with the values of the files in them. The values replace the references on both sides, so
+     * the elements of sorted arrays stay in the order of their references, and only the values which changed differ.
+     */
+    private boolean assertEqualsWithSidecars(String expectedJson, Object actual, Gson gson, Description mismatchDescription) {
+        Sidecars sidecars = new Sidecars(sidecarThreshold);
+        String actualJson = serializeToJson(actual, gson, sidecars);
+        if (expectedJson.equals(actualJson)) {
+            return true;
+        }
+        if (expected.isParsedJson()) {
+            expectedJson = filterParsedJson(gson, readSidecars(expected.getParsedContent().deepCopy(), this::readSidecar), fileMatcherConfig.isSortInputFile());
+        }
+        if (!(actual instanceof String)) {
+            actualJson = filterParsedJson(gson, readSidecars(JsonParser.parseString(actualJson), sidecars.getContents()::get), fileMatcherConfig.isSortInputFile());
+        }
+        return assertEquals(expectedJson, actualJson, mismatchDescription);
+    }
+
+    private byte[] readSidecar(String sidecarFileName) {
+        Path sidecar = fileStoreMatcherUtils.getSidecar(fileNameWithPath, sidecarFileName);
+        if (Files.notExists(sidecar)) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(sidecar);
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Exception while reading sidecar file: %s", sidecar.toString()), e);
+        }
+    }
+
+    /**
+     * Replaces the references to sidecar files by the values in the files, references to missing files are kept.
+     */
+    private JsonElement readSidecars(JsonElement jsonElement, Function<String, byte[]> sidecarContents) {
+        String sidecarFileName = Sidecars.getFileName(jsonElement);
+        if (sidecarFileName != null) {
+            byte[] content = sidecarContents.apply(sidecarFileName);
+            return content == null ? jsonElement : Sidecars.getValue(sidecarFileName, content);
+        }
+        if (jsonElement.isJsonObject()) {
+            for (Entry<String, JsonElement> member : jsonElement.getAsJsonObject().entrySet()) {
+                member.setValue(readSidecars(member.getValue(), sidecarContents));
+            }
+        } else if (jsonElement.isJsonArray()) {
+            JsonArray jsonArray = jsonElement.getAsJsonArray();
+            for (int i = 0; i < jsonArray.size(); ++i) {
+                jsonArray.set(i, readSidecars(jsonArray.get(i), sidecarContents));
+            }
+        }
+        return jsonElement;
     }
 
     private boolean createNotApprovedFileIfNotExists(Object toApprove, Gson gson) {
-        return createNotApprovedFileIfNotExists(toApprove, () -> serializeToJson(toApprove, gson));
+        return createNotApprovedFileIfNotExists(toApprove, () -> serializeToJsonWritingSidecars(toApprove, gson));
     }
 
     private void overwriteApprovedFile(Object actual, Gson gson) {
-        overwriteApprovedFile(actual, () -> serializeToJson(actual, gson));
+        overwriteApprovedFile(actual, () -> serializeToJsonWritingSidecars(actual, gson));
+    }
+
+    private String serializeToJsonWritingSidecars(Object toApprove, Gson gson) {
+        if (sidecarThreshold < 0) {
+            return serializeToJson(toApprove, gson);
+        }
+        Sidecars sidecars = new Sidecars(sidecarThreshold);
+        String json = serializeToJson(toApprove, gson, sidecars);
+        for (Entry<String, byte[]> sidecar : sidecars.getContents().entrySet()) {
+            try {
+                fileStoreMatcherUtils.writeSidecar(fileNameWithPath, sidecar.getKey(), sidecar.getValue());
+            } catch (IOException e) {
+                throw new IllegalStateException(String.format("Exception while writing sidecar file %s", sidecar.getKey()), e);
+            }
+        }
+        return json;
     }
 
     private String serializeToJson(Object toApprove, Gson gson) {
-        JsonElement actualJsonElement = getAsJsonElement(gson, toApprove);
-        return filterJson(gson, actualJsonElement, true);
+        return serializeToJson(toApprove, gson, null);
+    }
+
+    private String serializeToJson(Object toApprove, Gson gson, Sidecars sidecars) {
+        if (toApprove instanceof String) {
+            return filterParsedJson(gson, JsonParser.parseString((String) toApprove), true);
+        }
+        SortMarkingJsonTreeWriter jsonTree = SortMarkingJsonTreeWriter.toSortedJsonTree(gson, toApprove, matcherConfiguration.getPathsToIgnore(), sidecars);
+        return filterJson(gson, jsonTree.get(), jsonTree.getArraysToSort(), jsonTree.getReusedElements(), true);
     }
 
 
@@ -298,9 +368,9 @@ public class JsonMatcher<T> extends AbstractDiagnosingFileMatcher<T, JsonMatcher
     }
 
     private void appendFieldJsonSnippet(Object actual, Description mismatchDescription, Gson gson) {
-        JsonElement jsonTree = gson.toJsonTree(actual);
+        JsonElement jsonTree = SortMarkingJsonTreeWriter.toJsonTree(gson, actual).get();
         if (!jsonTree.isJsonPrimitive() && !jsonTree.isJsonNull()) {
-            mismatchDescription.appendText("\n" + gson.toJson(actual));
+            mismatchDescription.appendText("\n" + gson.toJson(jsonTree));
         }
     }
 
@@ -352,6 +422,60 @@ public class JsonMatcher<T> extends AbstractDiagnosingFileMatcher<T, JsonMatcher
         return this;
     }
 
+    @Override
+    public JsonMatcher<T> withMapsAsObjects() {
+        matcherConfiguration.writeMapsAsObjects();
+        return this;
+    }
+
+    @Override
+    public JsonMatcher<T> withGeneratedFieldAccessors() {
+        matcherConfiguration.readFieldsWithGeneratedAccessors();
+        return this;
+    }
+
+    @Override
+    public JsonMatcher<T> withNumberArraysInRows() {
+        matcherConfiguration.writeNumberArraysInRows();
+        return this;
+    }
+
+    @Override
+    public JsonMatcher<T> withProxyClasses(Matcher<String> classNamePattern) {
+        matcherConfiguration.addProxyClassNamePattern(classNamePattern);
+        return this;
+    }
+
+    @Override
+    public JsonMatcher<T> withProxyUnwrapper(Function<Object, Object> unwrapper) {
+        matcherConfiguration.addProxyUnwrapper(unwrapper);
+        return this;
+    }
+
+    /**
+     * Specify to write Strings longer than the given number of characters and byte arrays longer than the given number
+     * of bytes to sidecar files next to the approved file, named after the SHA-256 digest of their content. The JSON
+     * only holds a reference to the file, so the references are compared first, and the files are only read if they
+     * differ.
+     * <p>
+     * The sidecar files are written next to the approved file as soon as the not-approved file is created, so renaming
+     * the not-approved file approves them too. The ones of a not-approved file deleted instead are left behind. A String,
+     * which is JSON already, is written and compared as it is, without sidecar files.
+     * <p>
+     * Example:
+     * <pre>sameJsonAsApproved().withSidecarFilesAbove(64 * 1024)</pre>
+     *
+     * @param length the length of the longest value written in the JSON
+     * @return the instance of the matcher
+     */
+    public JsonMatcher<T> withSidecarFilesAbove(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Length must not be negative: " + length);
+        }
+        sidecarThreshold = length;
+        return this;
+    }
+
     @Override
     public String toString() {
         if (fileNameWithPath == null) {
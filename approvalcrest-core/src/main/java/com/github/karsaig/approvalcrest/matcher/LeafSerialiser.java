@@ -0,0 +1,164 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.bind.TypeAdapters;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Serialises the Set elements and Map entries for their ordering in {@link GsonProvider}. Strings, boxed primitives and
+ * enums written by the built-in adapters of the {@link Gson} get their tree and JSON text without going through the
+ * {@link Gson}, everything else is serialised by the {@link Gson} with a {@link SortMarkingJsonTreeWriter}, keeping the
+ * arrays of its Set and Map fields to be sorted, and its JSON text is only written when asked for.
+ */
+final class LeafSerialiser {
+
+    private static final Map<Class<?>, TypeAdapter<?>> BUILT_IN_ADAPTERS = new HashMap<>();
+
+    static {
+        BUILT_IN_ADAPTERS.put(String.class, TypeAdapters.STRING);
+        BUILT_IN_ADAPTERS.put(Character.class, TypeAdapters.CHARACTER);
+        BUILT_IN_ADAPTERS.put(Boolean.class, TypeAdapters.BOOLEAN);
+        BUILT_IN_ADAPTERS.put(Byte.class, TypeAdapters.BYTE);
+        BUILT_IN_ADAPTERS.put(Short.class, TypeAdapters.SHORT);
+        BUILT_IN_ADAPTERS.put(Integer.class, TypeAdapters.INTEGER);
+        BUILT_IN_ADAPTERS.put(Long.class, TypeAdapters.LONG);
+        BUILT_IN_ADAPTERS.put(Float.class, TypeAdapters.FLOAT);
+        BUILT_IN_ADAPTERS.put(Double.class, TypeAdapters.DOUBLE);
+    }
+
+    private final Supplier<Gson> gson;
+    private final ConcurrentMap<Class<?>, Optional<TypeAdapter<?>>> leafAdapters = new ConcurrentHashMap<>();
+
+    LeafSerialiser(Supplier<Gson> gson) {
+        this.gson = gson;
+    }
+
+    Value serialise(Object object) {
+        Gson gson = this.gson.get();
+        if (object != null) {
+            Value leaf = serialiseLeaf(gson, object);
+            if (leaf != null) {
+                return leaf;
+            }
+        }
+        SortMarkingJsonTreeWriter writer = SortMarkingJsonTreeWriter.toJsonTree(gson, object);
+        return new Value(gson, writer.get(), null, writer.getArraysToSort());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Value serialiseLeaf(Gson gson, Object object) {
+        Optional<TypeAdapter<?>> adapter = leafAdapters.computeIfAbsent(object.getClass(), type -> builtInLeafAdapter(gson, type));
+        if (!adapter.isPresent()) {
+            return null;
+        }
+        if (object instanceof Number) {
+            return new Value(gson, new JsonPrimitive((Number) object), object.toString(), Collections.emptySet());
+        }
+        if (object instanceof Boolean) {
+            return new Value(gson, new JsonPrimitive((Boolean) object), object.toString(), Collections.emptySet());
+        }
+        if (object instanceof Enum) {
+            return stringLeaf(gson, ((TypeAdapter<Object>) adapter.get()).toJsonTree(object).getAsString());
+        }
+        return stringLeaf(gson, object.toString());
+    }
+
+    private static Value stringLeaf(Gson gson, String value) {
+        if (!isWrittenAsIs(value)) {
+            return null;
+        }
+        return new Value(gson, new JsonPrimitive(value), '"' + value + '"', Collections.emptySet());
+    }
+
+    /**
+     * Returns the adapter of the type if it is a leaf type and the {@link Gson} writes it with its built-in adapter.
+     */
+    private static Optional<TypeAdapter<?>> builtInLeafAdapter(Gson gson, Class<?> type) {
+        TypeAdapter<?> builtIn = BUILT_IN_ADAPTERS.get(type);
+        if (builtIn == null && Enum.class.isAssignableFrom(type)) {
+            builtIn = TypeAdapters.ENUM_FACTORY.create(gson, TypeToken.get(type));
+        }
+        if (builtIn == null) {
+            return Optional.empty();
+        }
+        TypeAdapter<?> adapter = gson.getAdapter(type);
+        if (adapter == builtIn || type.isEnum() && adapter.getClass() == builtIn.getClass()) {
+            return Optional.of(adapter);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Tells whether {@link Gson} writes the String without escaping any of its characters.
+     */
+    private static boolean isWrittenAsIs(String value) {
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c < ' ' || c == '"' || c == '\\' || c == '<' || c == '>' || c == '&' || c == '=' || c == '\''
+                    || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A serialised object, with its tree and JSON text.
+     */
+    static final class Value {
+        private final Gson gson;
+        private final JsonElement tree;
+        private final Set<JsonArray> arraysToSort;
+        private String json;
+
+        private Value(Gson gson, JsonElement tree, String json, Set<JsonArray> arraysToSort) {
+            this.gson = gson;
+            this.tree = tree;
+            this.json = json;
+            this.arraysToSort = arraysToSort;
+        }
+
+        JsonElement tree() {
+            return tree;
+        }
+
+        /**
+         * @return the arrays of the tree written for Set and Map fields, compared by identity
+         */
+        Set<JsonArray> arraysToSort() {
+            return arraysToSort;
+        }
+
+        /**
+         * @return true if the JSON text of the object is a JSON string
+         */
+        boolean isString() {
+            return tree.isJsonPrimitive() && tree.getAsJsonPrimitive().isString();
+        }
+
+        /**
+         * @return the JSON text of the object, as written by the {@link Gson}
+         */
+        String json() {
+            if (json == null) {
+                json = gson.toJson(tree);
+            }
+            return json;
+        }
+    }
+}
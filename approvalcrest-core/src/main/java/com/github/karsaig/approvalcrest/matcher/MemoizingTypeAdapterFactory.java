@@ -0,0 +1,79 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import static com.github.karsaig.approvalcrest.matcher.ReflectiveAdapters.areSupertypesWrittenReflectively;
+import static com.github.karsaig.approvalcrest.matcher.ReflectiveAdapters.isReflective;
+
+import java.io.IOException;
+
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes an object referenced more than once in a graph only the first time it is met, the tree of any later reference
+ * is the one written then, see {@link SortMarkingJsonTreeWriter#memoizedValue(Object, SortMarkingJsonTreeWriter.ValueWriter)}.
+ * Only the objects written from their fields are memoized, by the reflective adapter or a generated accessor.
+ * <p>
+ * Like the adapters of the {@link GeneratedAccessorTypeAdapterFactory}, the adapters of this factory are not reflective,
+ * so a type is only memoized if all of its supertypes are written from their fields too, and a value of a subtype is
+ * passed on to the adapter Gson would choose for it.
+ * <p>
+ * The objects of circular references are numbered by the graph adapters instead, and the subtrees of a path to sort
+ * depend on where they are, so {@link GsonProvider} only registers this factory when there are neither.
+ */
+final class MemoizingTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        Class<T> rawType = (Class<T>) type.getRawType();
+        if (!isReflective(delegate) || rawType.isInterface() || !areSupertypesWrittenReflectively(gson, this, rawType)) {
+            return delegate;
+        }
+        return new Adapter<>(gson, delegate, rawType);
+    }
+
+    /**
+     * @return true if the adapter was created by this factory
+     */
+    static boolean isMemoizing(TypeAdapter<?> adapter) {
+        return adapter instanceof Adapter;
+    }
+
+    private static final class Adapter<T> extends TypeAdapter<T> {
+        private final Gson gson;
+        private final TypeAdapter<T> delegate;
+        private final Class<? super T> rawType;
+
+        private Adapter(Gson gson, TypeAdapter<T> delegate, Class<? super T> rawType) {
+            this.gson = gson;
+            this.delegate = delegate;
+            this.rawType = rawType;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+            } else if (value.getClass() != rawType) {
+                ((TypeAdapter<Object>) gson.getAdapter(value.getClass())).write(out, value);
+            } else if (out instanceof SortMarkingJsonTreeWriter) {
+                ((SortMarkingJsonTreeWriter) out).memoizedValue(value, () -> delegate.write(out, value));
+            } else {
+                delegate.write(out, value);
+            }
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            return delegate.read(in);
+        }
+    }
+}
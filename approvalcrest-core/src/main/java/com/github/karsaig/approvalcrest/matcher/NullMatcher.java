@@ -15,6 +15,8 @@ import static org.hamcrest.CoreMatchers.nullValue;
 
 import org.hamcrest.Description;
 
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
+
 /**
  * {@link DiagnosingCustomisableMatcher} implementation which verifies a bean is null.
  */
@@ -27,7 +29,7 @@ public class NullMatcher<T> extends DiagnosingCustomisableMatcher<T> {
     protected boolean matches(Object actual, Description mismatchDescription) {
         if (actual != null) {
             circularReferenceTypes.addAll(getClassesWithCircularReferences(actual,matcherConfiguration ));
-            String actualJson = gson(matcherConfiguration, circularReferenceTypes).toJson(actual);
+            String actualJson = SortMarkingJsonTreeWriter.toJson(gson(matcherConfiguration, circularReferenceTypes), actual);
             return appendMismatchDescription(mismatchDescription, "null", actualJson, "actual is not null");
         }
         return true;
@@ -0,0 +1,111 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+
+/**
+ * Rewrites the arrays of numbers in JSON pretty printed by {@link Gson}, which writes each number on a line of its own,
+ * to a single line, or to rows of numbers if the line would be longer than {@value #LINE_WIDTH} characters. Nothing
+ * else is changed, so the JSON still parses to the same tree.
+ * <p>
+ * {@link Gson} never breaks a line inside a string, so a line ending with {@code [} opens an array, and a line holding a
+ * single number is an element of one.
+ */
+final class NumberArrayRows {
+
+    static final int LINE_WIDTH = 120;
+
+    private NumberArrayRows() {
+    }
+
+    /**
+     * @param json JSON pretty printed by {@link Gson}
+     * @return the JSON with its arrays of numbers written in rows
+     */
+    static String rewrite(String json) {
+        if (json.indexOf('[') < 0) {
+            return json;
+        }
+        String[] lines = json.split("\n", -1);
+        List<String> compacted = new ArrayList<>();
+        int i = 0;
+        while (i < lines.length) {
+            int end = lines[i].endsWith("[") ? findEndOfNumberArray(lines, i) : -1;
+            if (end < 0) {
+                compacted.add(lines[i]);
+                ++i;
+            } else {
+                addArray(compacted, lines, i, end);
+                i = end + 1;
+            }
+        }
+        return String.join("\n", compacted);
+    }
+
+    /**
+     * @return the index of the line closing the array opened by the given line if it only holds numbers, -1 otherwise
+     */
+    private static int findEndOfNumberArray(String[] lines, int open) {
+        int i = open + 1;
+        while (i < lines.length && isNumber(lines[i].trim())) {
+            ++i;
+        }
+        if (i == open + 1 || i == lines.length) {
+            return -1;
+        }
+        String closing = lines[i].trim();
+        return closing.equals("]") || closing.equals("],") ? i : -1;
+    }
+
+    /**
+     * @param element an element of an array, with the comma following it
+     */
+    private static boolean isNumber(String element) {
+        int length = element.endsWith(",") ? element.length() - 1 : element.length();
+        if (length == 0 || !(element.charAt(0) == '-' || Character.isDigit(element.charAt(0)))) {
+            return false;
+        }
+        for (int i = 1; i < length; ++i) {
+            char c = element.charAt(i);
+            if (!(Character.isDigit(c) || c == '.' || c == 'E' || c == 'e' || c == '-' || c == '+')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addArray(List<String> compacted, String[] lines, int open, int close) {
+        List<String> numbers = new ArrayList<>(close - open - 1);
+        for (int i = open + 1; i < close; ++i) {
+            String element = lines[i].trim();
+            numbers.add(element.endsWith(",") ? element.substring(0, element.length() - 1) : element);
+        }
+        String closing = lines[close];
+        String oneLine = lines[open] + String.join(", ", numbers) + closing.trim();
+        if (oneLine.length() <= LINE_WIDTH) {
+            compacted.add(oneLine);
+            return;
+        }
+        String elementLine = lines[open + 1];
+        String indent = elementLine.substring(0, elementLine.length() - elementLine.trim().length());
+        compacted.add(lines[open]);
+        StringBuilder row = new StringBuilder(indent);
+        for (String number : numbers) {
+            if (row.length() > indent.length()) {
+                // a row ends with a comma
+                if (row.length() + 2 + number.length() + 1 > LINE_WIDTH) {
+                    compacted.add(row.append(',').toString());
+                    row.setLength(0);
+                    row.append(indent);
+                } else {
+                    row.append(", ");
+                }
+            }
+            row.append(number);
+        }
+        compacted.add(row.toString());
+        compacted.add(closing);
+    }
+}
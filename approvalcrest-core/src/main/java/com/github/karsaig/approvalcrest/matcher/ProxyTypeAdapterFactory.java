@@ -0,0 +1,71 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import java.io.IOException;
+
+import com.github.karsaig.approvalcrest.ProxyRules;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes the proxies recognised by the {@link ProxyRules} without reading their fields: a proxy unwrapped is written as
+ * the object it was unwrapped to, any other proxy as a placeholder naming the type it stands for.
+ * <p>
+ * Gson picks the adapter of the runtime type of a field, an element or an entry over the adapter of its declared type
+ * unless the runtime type is written reflectively, so a proxy held by a field declared with the type it stands for is
+ * written by this factory too.
+ */
+final class ProxyTypeAdapterFactory implements TypeAdapterFactory {
+
+    private final ProxyRules proxyRules;
+
+    ProxyTypeAdapterFactory(ProxyRules proxyRules) {
+        this.proxyRules = proxyRules;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType.isInterface() || !proxyRules.isProxy(rawType)) {
+            return null;
+        }
+        return (TypeAdapter<T>) new ProxyAdapter(gson, proxyRules.getProxiedTypeName(rawType));
+    }
+
+    private final class ProxyAdapter extends TypeAdapter<Object> {
+        private final Gson gson;
+        private final String proxiedTypeName;
+
+        private ProxyAdapter(Gson gson, String proxiedTypeName) {
+            this.gson = gson;
+            this.proxiedTypeName = proxiedTypeName;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(JsonWriter out, Object proxy) throws IOException {
+            if (proxy == null) {
+                out.nullValue();
+                return;
+            }
+            Object target = proxyRules.unwrap(proxy);
+            if (target != null) {
+                ((TypeAdapter<Object>) gson.getAdapter(target.getClass())).write(out, target);
+            } else {
+                out.beginObject();
+                out.name(ProxyRules.REFERENCE).value(proxiedTypeName);
+                out.endObject();
+            }
+        }
+
+        @Override
+        public Object read(JsonReader in) {
+            throw new UnsupportedOperationException("Only for serialization!");
+        }
+    }
+}
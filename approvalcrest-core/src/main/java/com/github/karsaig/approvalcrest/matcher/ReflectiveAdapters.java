@@ -0,0 +1,94 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Helpers for type adapter factories replacing the reflective adapters of Gson with adapters writing the same JSON.
+ * <p>
+ * Gson picks the adapter of the runtime type of a value over the adapter of its declared type by checking whether they
+ * are reflective, which the replacing adapters are not. So a type should only be replaced if all of its supertypes are
+ * written reflectively, and the values of fields should be written with the adapter Gson would choose, see
+ * {@link #chooseAdapter(Gson, Type, TypeAdapter, Object)}.
+ */
+public final class ReflectiveAdapters {
+
+    private ReflectiveAdapters() {
+    }
+
+    /**
+     * @param adapter the adapter to check
+     * @return true if the adapter counts as reflective when Gson chooses between the adapters of the declared and the
+     * runtime type of a value, the adapters of approvalcrest replacing a reflective adapter included
+     */
+    public static boolean isReflective(TypeAdapter<?> adapter) {
+        return adapter instanceof ReflectiveTypeAdapterFactory.Adapter
+                || GeneratedAccessorTypeAdapterFactory.isGenerated(adapter)
+                || MemoizingTypeAdapterFactory.isMemoizing(adapter);
+    }
+
+    /**
+     * @param gson     the Gson the adapters are created by
+     * @param skipPast the factory asking, whose own adapters are not looked at
+     * @param type     the type to check
+     * @return true if every supertype of the type is written by a reflective adapter, so Gson would pick the adapter of
+     * the type for a value of the type held by a field of any of its supertypes
+     */
+    public static boolean areSupertypesWrittenReflectively(Gson gson, TypeAdapterFactory skipPast, Class<?> type) {
+        for (Class<?> supertype : getSupertypes(type)) {
+            if (!isReflective(gson.getDelegateAdapter(skipPast, TypeToken.get(supertype)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Chooses between the adapter of the declared and the runtime type of a value like Gson's
+     * {@code TypeAdapterRuntimeTypeWrapper} does.
+     *
+     * @param gson                the Gson the adapters are created by
+     * @param declaredType        the declared type of the value
+     * @param declaredTypeAdapter the adapter of the declared type
+     * @param value               the value to write
+     * @return the adapter to write the value with
+     */
+    public static TypeAdapter<?> chooseAdapter(Gson gson, Type declaredType, TypeAdapter<?> declaredTypeAdapter, Object value) {
+        if (value != null && (declaredType instanceof TypeVariable<?> || declaredType instanceof Class<?>) && value.getClass() != declaredType) {
+            TypeAdapter<?> runtimeTypeAdapter = gson.getAdapter(value.getClass());
+            if (!isReflective(runtimeTypeAdapter) || isReflective(declaredTypeAdapter)) {
+                return runtimeTypeAdapter;
+            }
+        }
+        return declaredTypeAdapter;
+    }
+
+    private static Set<Class<?>> getSupertypes(Class<?> type) {
+        Set<Class<?>> supertypes = new LinkedHashSet<>();
+        List<Class<?>> toVisit = new ArrayList<>();
+        toVisit.add(type);
+        while (!toVisit.isEmpty()) {
+            Class<?> visited = toVisit.remove(toVisit.size() - 1);
+            Class<?> superclass = visited.getSuperclass();
+            if (superclass != null && superclass != Object.class && supertypes.add(superclass)) {
+                toVisit.add(superclass);
+            }
+            for (Class<?> implemented : visited.getInterfaces()) {
+                if (supertypes.add(implemented)) {
+                    toVisit.add(implemented);
+                }
+            }
+        }
+        return supertypes;
+    }
+}
@@ -84,6 +84,43 @@ public class FileStoreMatcherUtils {
         return file.getFileName().toString();
     }
 
+    /**
+     * Writes a sidecar file next to the approved file, unless it exists. Sidecar files are named after the digest of
+     * their content, so an existing one has the same content.
+     *
+     * @param fileNameWithPath specifies the name of the approved file with full path (relative to project root)
+     * @param sidecarFileName  the name of the sidecar file
+     * @param content          the file's content
+     * @throws IOException exception thrown when failed to create the file
+     */
+    public void writeSidecar(Path fileNameWithPath, String sidecarFileName, byte[] content) throws IOException {
+        Path file = getSidecar(fileNameWithPath, sidecarFileName);
+        if (Files.exists(file)) {
+            return;
+        }
+        Path parent = file.getParent();
+        if (isPosixCompatible(parent)) {
+            Files.createDirectories(parent, PosixFilePermissions.asFileAttribute(APPROVED_DIRECTORY_PERMISSIONS));
+        } else {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, content);
+        if (isPosixCompatible(file)) {
+            Files.setPosixFilePermissions(file, APPROVED_FILE_PERMISSIONS);
+        }
+    }
+
+    /**
+     * Gets the sidecar file next to the approved file.
+     *
+     * @param fileNameWithPath the name of the approved file with full path (relative to project root)
+     * @param sidecarFileName  the name of the sidecar file
+     * @return the {@link Path} object
+     */
+    public Path getSidecar(Path fileNameWithPath, String sidecarFileName) {
+        return getApproved(fileNameWithPath).resolveSibling(sidecarFileName);
+    }
+
     public String readFile(Path file) throws IOException {
         String fileContent = new String(Files.readAllBytes(file), UTF_8);
         if (fileContent.startsWith("/*")) {
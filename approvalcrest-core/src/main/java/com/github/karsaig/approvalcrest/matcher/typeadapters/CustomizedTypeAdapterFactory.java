@@ -2,6 +2,8 @@ package com.github.karsaig.approvalcrest.matcher.typeadapters;
 
 import java.io.IOException;
 
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
+
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.TypeAdapter;
@@ -31,9 +33,11 @@ public abstract class CustomizedTypeAdapterFactory<C> implements TypeAdapterFact
         return new TypeAdapter<C>() {
             @Override
             public void write(JsonWriter out, C value) throws IOException {
-                JsonElement tree = delegate.toJsonTree(value);
+                // built with the writer keeping the arrays of Set and Map fields to be sorted
+                SortMarkingJsonTreeWriter treeWriter = SortMarkingJsonTreeWriter.toJsonTree(delegate, value);
+                JsonElement tree = treeWriter.get();
                 beforeWrite(value, tree);
-                adapter.write(out, tree);
+                SortMarkingJsonTreeWriter.writeTree(out, tree, treeWriter.getArraysToSort());
             }
 
             @Override
@@ -1,10 +1,7 @@
 package com.github.karsaig.approvalcrest.matcher.typeadapters;
 
 import java.io.IOException;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.Date;
-import java.util.Locale;
 
 import com.google.gson.Gson;
 import com.google.gson.TypeAdapter;
@@ -15,8 +12,6 @@ import com.google.gson.stream.JsonWriter;
 
 public class DateAdapter extends TypeAdapter<Date> {
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX").withLocale(Locale.ENGLISH).withZone(ZoneId.of("UTC"));
-
     public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
         @SuppressWarnings("unchecked")
         @Override
@@ -30,7 +25,7 @@ public class DateAdapter extends TypeAdapter<Date> {
         if (date == null) {
             jsonWriter.nullValue();
         } else {
-            jsonWriter.value(FORMATTER.format(date.toInstant()));
+            jsonWriter.value(DateTimeFormatters.DATE.format(date.toInstant()));
         }
     }
 
@@ -0,0 +1,24 @@
+package com.github.karsaig.approvalcrest.matcher.typeadapters;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Formatters of the date and time adapters. Building them loads the time zone rules, so they are initialised when the
+ * first date or time is serialized, not when the adapters are registered.
+ */
+final class DateTimeFormatters {
+
+    static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX").withLocale(Locale.ENGLISH).withZone(ZoneId.of("UTC"));
+    static final DateTimeFormatter INSTANT = DateTimeFormatter.ISO_INSTANT.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
+    static final DateTimeFormatter LOCAL_DATE = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
+    static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ISO_LOCAL_DATE_TIME.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
+    static final DateTimeFormatter LOCAL_TIME = DateTimeFormatter.ISO_LOCAL_TIME.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
+    static final DateTimeFormatter OFFSET_DATE_TIME = DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
+    static final DateTimeFormatter OFFSET_TIME = DateTimeFormatter.ISO_OFFSET_TIME.withLocale(Locale.ENGLISH);
+    static final DateTimeFormatter ZONED_DATE_TIME = DateTimeFormatter.ISO_DATE_TIME.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
+
+    private DateTimeFormatters() {
+    }
+}
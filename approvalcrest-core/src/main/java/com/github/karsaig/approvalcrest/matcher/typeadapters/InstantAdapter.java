@@ -3,9 +3,6 @@ package com.github.karsaig.approvalcrest.matcher.typeadapters;
 
 import java.lang.reflect.Type;
 import java.time.Instant;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -17,17 +14,16 @@ import com.google.gson.JsonSerializer;
 import com.google.gson.reflect.TypeToken;
 
 public class InstantAdapter implements JsonSerializer<Instant>, JsonDeserializer<Instant> {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_INSTANT.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
     public static final Type INSTANT_TYPE = (new TypeToken<Instant>() {
     }).getType();
 
     @Override
     public JsonElement serialize(Instant src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(FORMATTER.format(src));
+        return new JsonPrimitive(DateTimeFormatters.INSTANT.format(src));
     }
 
     @Override
     public Instant deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        return FORMATTER.parse(json.getAsString(), Instant::from);
+        return DateTimeFormatters.INSTANT.parse(json.getAsString(), Instant::from);
     }
 }
@@ -2,9 +2,6 @@ package com.github.karsaig.approvalcrest.matcher.typeadapters;
 
 import java.lang.reflect.Type;
 import java.time.LocalDate;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -16,17 +13,16 @@ import com.google.gson.JsonSerializer;
 import com.google.gson.reflect.TypeToken;
 
 public class LocalDateAdapter implements JsonSerializer<LocalDate>, JsonDeserializer<LocalDate> {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
     public static final Type LOCAL_DATE_TYPE = (new TypeToken<LocalDate>() {
     }).getType();
 
     @Override
     public JsonElement serialize(LocalDate src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(FORMATTER.format(src));
+        return new JsonPrimitive(DateTimeFormatters.LOCAL_DATE.format(src));
     }
 
     @Override
     public LocalDate deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        return FORMATTER.parse(json.getAsString(), LocalDate::from);
+        return DateTimeFormatters.LOCAL_DATE.parse(json.getAsString(), LocalDate::from);
     }
 }
@@ -2,9 +2,6 @@ package com.github.karsaig.approvalcrest.matcher.typeadapters;
 
 import java.lang.reflect.Type;
 import java.time.LocalTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -16,18 +13,17 @@ import com.google.gson.JsonSerializer;
 import com.google.gson.reflect.TypeToken;
 
 public class LocalTimeAdapter implements JsonSerializer<LocalTime>, JsonDeserializer<LocalTime> {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_TIME.withZone(ZoneId.of("UTC")).withLocale(Locale.ENGLISH);
     public static final Type LOCAL_TIME_TYPE = (new TypeToken<LocalTime>() {
     }).getType();
 
     @Override
     public JsonElement serialize(LocalTime src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(FORMATTER.format(src));
+        return new JsonPrimitive(DateTimeFormatters.LOCAL_TIME.format(src));
     }
 
     @Override
     public LocalTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        return FORMATTER.parse(json.getAsString(), LocalTime::from);
+        return DateTimeFormatters.LOCAL_TIME.parse(json.getAsString(), LocalTime::from);
     }
 
 }
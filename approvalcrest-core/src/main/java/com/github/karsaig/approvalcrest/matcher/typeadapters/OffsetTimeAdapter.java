@@ -2,8 +2,6 @@ package com.github.karsaig.approvalcrest.matcher.typeadapters;
 
 import java.lang.reflect.Type;
 import java.time.OffsetTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
 
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
@@ -15,17 +13,16 @@ import com.google.gson.JsonSerializer;
 import com.google.gson.reflect.TypeToken;
 
 public class OffsetTimeAdapter implements JsonSerializer<OffsetTime>, JsonDeserializer<OffsetTime> {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_OFFSET_TIME.withLocale(Locale.ENGLISH);
     public static final Type OFFSET_TIME_TYPE = (new TypeToken<OffsetTime>() {
     }).getType();
 
     @Override
     public JsonElement serialize(OffsetTime src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(FORMATTER.format(src));
+        return new JsonPrimitive(DateTimeFormatters.OFFSET_TIME.format(src));
     }
 
     @Override
     public OffsetTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        return FORMATTER.parse(json.getAsString(), OffsetTime::from);
+        return DateTimeFormatters.OFFSET_TIME.parse(json.getAsString(), OffsetTime::from);
     }
 }
@@ -0,0 +1,83 @@
+package com.github.karsaig.approvalcrest.matcher.typeadapters;
+
+import java.io.IOException;
+
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes arrays of primitives element by element with the primitive {@link JsonWriter} methods. Gson's array adapter
+ * boxes every element and looks up the adapter of its runtime type. The JSON written is the same, floats are boxed to
+ * keep their {@link Float#toString(float)} form. Byte arrays are written to sidecar files if the
+ * {@link SortMarkingJsonTreeWriter} asks for it.
+ */
+public class PrimitiveArrayAdapter extends TypeAdapter<Object> {
+
+    public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<?> componentType = type.getRawType().getComponentType();
+            return componentType != null && componentType.isPrimitive() ? (TypeAdapter<T>) INSTANCE : null;
+        }
+    };
+
+    private static final PrimitiveArrayAdapter INSTANCE = new PrimitiveArrayAdapter();
+
+    @Override
+    public void write(JsonWriter out, Object value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        if (value instanceof byte[] && out instanceof SortMarkingJsonTreeWriter && ((SortMarkingJsonTreeWriter) out).sidecarValue((byte[]) value)) {
+            return;
+        }
+        out.beginArray();
+        if (value instanceof int[]) {
+            for (int element : (int[]) value) {
+                out.value(element);
+            }
+        } else if (value instanceof long[]) {
+            for (long element : (long[]) value) {
+                out.value(element);
+            }
+        } else if (value instanceof double[]) {
+            for (double element : (double[]) value) {
+                out.value(element);
+            }
+        } else if (value instanceof byte[]) {
+            for (byte element : (byte[]) value) {
+                out.value(element);
+            }
+        } else if (value instanceof float[]) {
+            for (float element : (float[]) value) {
+                out.value(Float.valueOf(element));
+            }
+        } else if (value instanceof short[]) {
+            for (short element : (short[]) value) {
+                out.value(element);
+            }
+        } else if (value instanceof char[]) {
+            for (char element : (char[]) value) {
+                out.value(String.valueOf(element));
+            }
+        } else {
+            for (boolean element : (boolean[]) value) {
+                out.value(element);
+            }
+        }
+        out.endArray();
+    }
+
+    @Override
+    public Object read(JsonReader in) {
+        throw new UnsupportedOperationException("Only for serialization!");
+    }
+}
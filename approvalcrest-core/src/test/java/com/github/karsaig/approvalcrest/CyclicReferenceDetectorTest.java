@@ -7,13 +7,23 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
@@ -150,6 +160,37 @@ public class CyclicReferenceDetectorTest {
         assertThat(returnedClasses, hasItem(One.class));
     }
 
+    @Test
+    public void shouldReturnTheClassWithCyclicReferenceFieldWhenFieldsAreReadWithGeneratedAccessors() {
+        One one = new One();
+        Two two = new Two();
+        Three three = new Three();
+
+        one.setGenericObject(two);
+        two.setGenericObject(three);
+        three.setGenericObject(one);
+        MatcherConfiguration matcherConfig = new MatcherConfiguration().readFieldsWithGeneratedAccessors();
+
+        Set<Class<?>> returnedClasses = getClassesWithCircularReferences(one, matcherConfig);
+
+        assertThat(returnedClasses, hasItem(One.class));
+    }
+
+    @Test
+    public void shouldReturnEmptyListWhenTheFieldNameIsIgnoredAndFieldsAreReadWithGeneratedAccessors() {
+        One one = new One();
+        Two two = new Two();
+        two.setGenericObject(one);
+        one.setGenericObject(two);
+        List<Matcher<String>> fieldNamesToIgnore = new ArrayList<>();
+        fieldNamesToIgnore.add(Matchers.is("twoObject"));
+        MatcherConfiguration matcherConfig = new MatcherConfiguration().addPatternToIgnore(fieldNamesToIgnore).readFieldsWithGeneratedAccessors();
+
+        Set<Class<?>> returnedClasses = getClassesWithCircularReferences(one, matcherConfig);
+
+        assertThat(returnedClasses, empty());
+    }
+
     @Test
     public void shouldReturnEmptyListWhenTheCyclicReferenceIsMoreThanTwoNodesAwayButTheTypeIsIgnored() {
         One one = new One();
@@ -256,6 +297,56 @@ public class CyclicReferenceDetectorTest {
         assertThat(returnedClasses.isEmpty(), is(true));
     }
 
+    @Test
+    public void shouldReturnAnEmptySetWhenTheObjectHasJdkValueTypeFields() {
+        One one = new One();
+        one.setGenericObject(Arrays.asList(UUID.randomUUID(), BigDecimal.ONE, Duration.ofSeconds(5), Locale.ENGLISH, OptionalInt.of(5), new AtomicLong(5)));
+        MatcherConfiguration matcherConfig = new MatcherConfiguration().addTypeToIgnore(EMPTY_TYPES_TO_IGNORE).addPatternToIgnore(EMPTY_PATTERNS_TO_IGNORE).addPathToIgnore(EMPTY_PATHS_TO_IGNORE);
+
+        Set<Class<?>> returnedClasses = getClassesWithCircularReferences(one, matcherConfig);
+
+        assertThat(returnedClasses.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldNotLookIntoProxiesNotUnwrapped() {
+        One one = new One();
+        one.setGenericObject(Proxy.newProxyInstance(Runnable.class.getClassLoader(), new Class<?>[]{Runnable.class}, new Handler(one)));
+        MatcherConfiguration matcherConfig = new MatcherConfiguration().addTypeToIgnore(EMPTY_TYPES_TO_IGNORE).addPatternToIgnore(EMPTY_PATTERNS_TO_IGNORE).addPathToIgnore(EMPTY_PATHS_TO_IGNORE)
+                .addProxyUnwrapper(proxy -> null);
+
+        Set<Class<?>> returnedClasses = getClassesWithCircularReferences(one, matcherConfig);
+
+        assertThat(returnedClasses.isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldReturnTheClassWithCyclicReferenceWhenTheCyclicReferenceGoesThroughAnUnwrappedProxy() {
+        One one = new One();
+        Two two = new Two();
+        two.setGenericObject(one);
+        one.setGenericObject(Proxy.newProxyInstance(Runnable.class.getClassLoader(), new Class<?>[]{Runnable.class}, new Handler(two)));
+        MatcherConfiguration matcherConfig = new MatcherConfiguration().addTypeToIgnore(EMPTY_TYPES_TO_IGNORE).addPatternToIgnore(EMPTY_PATTERNS_TO_IGNORE).addPathToIgnore(EMPTY_PATHS_TO_IGNORE)
+                .addProxyUnwrapper(proxy -> ((Handler) Proxy.getInvocationHandler(proxy)).target);
+
+        Set<Class<?>> returnedClasses = getClassesWithCircularReferences(one, matcherConfig);
+
+        assertThat(returnedClasses, hasItem(One.class));
+    }
+
+    @Test
+    public void shouldReturnTheClassWithCyclicReferenceWhenTheCyclicReferenceGoesThroughAnOptional() {
+        One one = new One();
+        Two two = new Two();
+        one.setGenericObject(Optional.of(two));
+        two.setGenericObject(one);
+        MatcherConfiguration matcherConfig = new MatcherConfiguration().addTypeToIgnore(EMPTY_TYPES_TO_IGNORE).addPatternToIgnore(EMPTY_PATTERNS_TO_IGNORE).addPathToIgnore(EMPTY_PATHS_TO_IGNORE);
+
+        Set<Class<?>> returnedClasses = getClassesWithCircularReferences(one, matcherConfig);
+
+        assertThat(returnedClasses, hasItem(One.class));
+    }
+
     @Test
     public void shouldReturnTheClassWithCircularReferenceFieldWhenTheFieldIsAListAndContainsAnObjectThatCausesCircularReference() {
         One one = new One();
@@ -431,4 +522,17 @@ public class CyclicReferenceDetectorTest {
 
         assertThat(returnedClasses, is(empty()));
     }
-}
\ No newline at end of file
+
+    private static class Handler implements InvocationHandler {
+        private final Object target;
+
+        private Handler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            throw new AssertionError("proxy was invoked");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.karsaig.approvalcrest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hamcrest.CustomTypeSafeMatcher;
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which verify {@link IgnoreRules} decides on the types and fields to ignore like the
+ * {@link MatcherConfiguration} it is built from.
+ */
+public class IgnoreRulesTest {
+
+    @Test
+    public void shouldIgnoreExactTypeOnlyAsType() {
+        IgnoreRules rules = new MatcherConfiguration().addTypeToIgnore(Number.class).getIgnoreRules();
+
+        assertThat(rules.isTypeIgnored(Number.class), is(true));
+        assertThat(rules.isTypeIgnored(Integer.class), is(false));
+    }
+
+    @Test
+    public void shouldIgnoreSubtypesOfIgnoredTypes() {
+        IgnoreRules rules = new MatcherConfiguration().addTypeToIgnore(Number.class).getIgnoreRules();
+
+        assertThat(rules.isSubtypeOfIgnoredType(Integer.class), is(true));
+        assertThat(rules.isSubtypeOfIgnoredType(String.class), is(false));
+    }
+
+    @Test
+    public void shouldIgnoreFieldsMatchingPatterns() {
+        IgnoreRules rules = new MatcherConfiguration().addPatternToIgnore(startsWith("ignored")).getIgnoreRules();
+
+        assertThat(rules.isFieldIgnored(Bean.class, "ignoredField"), is(true));
+        assertThat(rules.isFieldIgnored(Bean.class, "visitedField"), is(false));
+    }
+
+    @Test
+    public void shouldVisitNonStaticFieldsNotMatchingPatterns() {
+        IgnoreRules rules = new MatcherConfiguration().addPatternToIgnore(startsWith("ignored")).getIgnoreRules();
+
+        List<String> fieldNames = rules.getFieldsToVisit(Bean.class).stream().map(Field::getName).collect(Collectors.toList());
+
+        assertThat(fieldNames, contains("visitedField", "otherField"));
+    }
+
+    @Test
+    public void shouldRebuildRulesWhenConfigurationChanges() {
+        MatcherConfiguration configuration = new MatcherConfiguration();
+        IgnoreRules first = configuration.getIgnoreRules();
+
+        assertThat(configuration.getIgnoreRules(), sameInstance(first));
+        assertThat(configuration.addTypeToIgnore(Number.class).getIgnoreRules().isTypeIgnored(Number.class), is(true));
+    }
+
+    @Test
+    public void shouldOnlyChangeRulesThroughTheConfiguration() {
+        MatcherConfiguration configuration = new MatcherConfiguration();
+        IgnoreRules first = configuration.getIgnoreRules();
+
+        assertThrows(UnsupportedOperationException.class, () -> configuration.getTypesToIgnore().add(Number.class));
+        assertThrows(UnsupportedOperationException.class, () -> configuration.getPatternsToIgnore().add(startsWith("ignored")));
+        assertThat(configuration.getIgnoreRules(), sameInstance(first));
+    }
+
+    @Test
+    public void shouldShareDecisionsOfEqualConfigurations() {
+        Matcher<String> pattern = startsWith("ignored");
+        IgnoreRules first = new MatcherConfiguration().addTypeToIgnore(Number.class).addPatternToIgnore(pattern).getIgnoreRules();
+        List<Field> fieldsToVisit = first.getFieldsToVisit(Bean.class);
+
+        IgnoreRules second = new MatcherConfiguration().addTypeToIgnore(Number.class).addPatternToIgnore(pattern).getIgnoreRules();
+
+        assertThat(second, sameInstance(first));
+        assertThat(second.getFieldsToVisit(Bean.class), sameInstance(fieldsToVisit));
+    }
+
+    @Test
+    public void shouldNotShareRulesOfDifferentPatternsWithTheSameDescription() {
+        IgnoreRules first = new MatcherConfiguration().addPatternToIgnore(fieldName("ignoredField")).getIgnoreRules();
+        IgnoreRules second = new MatcherConfiguration().addPatternToIgnore(fieldName("otherField")).getIgnoreRules();
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(second.isFieldIgnored(Bean.class, "otherField"), is(true));
+        assertThat(second.isFieldIgnored(Bean.class, "ignoredField"), is(false));
+    }
+
+    private static Matcher<String> fieldName(String name) {
+        return new CustomTypeSafeMatcher<String>("a generated field name") {
+            @Override
+            protected boolean matchesSafely(String item) {
+                return item.equals(name);
+            }
+        };
+    }
+
+    @SuppressWarnings("unused")
+    private static class Bean {
+        private static String staticField;
+        private String visitedField;
+        private String ignoredField;
+        private String otherField;
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.karsaig.approvalcrest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which verify {@link ProxyRules} are shared by the {@link MatcherConfiguration}s with the same proxy class name
+ * patterns and unwrappers.
+ */
+public class ProxyRulesTest {
+
+    @Test
+    public void shouldOnlyTreatJdkDynamicProxiesAsProxiesWhenConfigured() {
+        Class<?> proxyClass = Proxy.newProxyInstance(Runnable.class.getClassLoader(), new Class<?>[]{Runnable.class}, (proxy, method, args) -> null).getClass();
+
+        assertThat(new MatcherConfiguration().getProxyRules().isProxy(proxyClass), is(false));
+        assertThat(new MatcherConfiguration().addProxyUnwrapper(proxy -> null).getProxyRules().isProxy(proxyClass), is(true));
+        assertThat(new MatcherConfiguration().addProxyClassNamePattern(endsWith("$$Proxy")).getProxyRules().isProxy(proxyClass), is(true));
+    }
+
+    @Test
+    public void shouldShareDecisionsOfEqualConfigurations() {
+        Matcher<String> pattern = endsWith("$$Proxy");
+        Function<Object, Object> unwrapper = proxy -> null;
+        ProxyRules first = new MatcherConfiguration().addProxyClassNamePattern(pattern).addProxyUnwrapper(unwrapper).getProxyRules();
+
+        ProxyRules second = new MatcherConfiguration().addProxyClassNamePattern(pattern).addProxyUnwrapper(unwrapper).getProxyRules();
+
+        assertThat(second, sameInstance(first));
+        assertThat(second.isProxy(Bean$$Proxy.class), is(true));
+        assertThat(second.getProxiedTypeName(Bean$$Proxy.class), sameInstance(first.getProxiedTypeName(Bean$$Proxy.class)));
+    }
+
+    @Test
+    public void shouldNotShareRulesOfDifferentUnwrappers() {
+        Bean target = new Bean();
+        ProxyRules first = new MatcherConfiguration().addProxyUnwrapper(proxy -> null).getProxyRules();
+        ProxyRules second = new MatcherConfiguration().addProxyUnwrapper(proxy -> target).getProxyRules();
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(first.unwrap(new Bean$$Proxy()), nullValue());
+        assertThat(second.unwrap(new Bean$$Proxy()), sameInstance(target));
+    }
+
+    private static class Bean {
+    }
+
+    private static class Bean$$Proxy extends Bean {
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.karsaig.approvalcrest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests which verify {@link Records} recognises records compiled by the JDK running the tests, skipped before Java 16.
+ */
+public class RecordsTest {
+
+    @TempDir
+    Path directory;
+
+    private ClassLoader classLoader;
+
+    @BeforeEach
+    public void compileRecords() throws IOException {
+        String specificationVersion = System.getProperty("java.specification.version");
+        assumeTrue(!specificationVersion.startsWith("1.") && Integer.parseInt(specificationVersion) >= 16, "records need Java 16");
+
+        write("Point.java", "public record Point(int x, int y) {}");
+        write("Line.java", "public record Line(Point from, Point to, String name) {}");
+        write("Node.java", "public record Node(Node next, java.util.concurrent.TimeUnit unit) {}");
+        write("Holder.java", "public record Holder(java.util.List<Object> items) {}");
+        write("Doubled.java", "public record Doubled(int value) { public int value() { return value * 2; } }");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments = new ArrayList<>(Arrays.asList("-d", directory.toString()));
+        try (Stream<Path> sources = Files.list(directory)) {
+            sources.map(Path::toString).forEach(arguments::add);
+        }
+        assertThat(compiler.run(null, null, null, arguments.toArray(new String[0])), is(0));
+        classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    @Test
+    public void shouldRecogniseRecords() throws Exception {
+        assertThat(Records.isRecord(load("Point")), is(true));
+        assertThat(Records.isRecord(Object.class), is(false));
+        assertThat(Records.isRecord(String.class), is(false));
+    }
+
+    @Test
+    public void shouldTreatRecordsOfLeavesAsAcyclicByConstruction() throws Exception {
+        assertThat(Records.isAcyclicByConstruction(load("Point")), is(true));
+    }
+
+    @Test
+    public void shouldNotTreatRecordsReferencingRecordsAsAcyclicByConstruction() throws Exception {
+        assertThat(Records.isAcyclicByConstruction(load("Line")), is(false));
+        assertThat(Records.isAcyclicByConstruction(load("Node")), is(false));
+    }
+
+    @Test
+    public void shouldNotTreatRecordsReferencingMutableObjectsAsAcyclicByConstruction() throws Exception {
+        assertThat(Records.isAcyclicByConstruction(load("Holder")), is(false));
+    }
+
+    @Test
+    public void shouldReadComponentsThroughTheirAccessors() throws Exception {
+        Class<?> doubled = load("Doubled");
+        Object value = doubled.getConstructor(int.class).newInstance(2);
+
+        Object[] components = FieldReader.ofRecordComponents(Records.getComponentFields(doubled)).read(value);
+
+        assertThat(Arrays.asList(components), contains((Object) 4));
+    }
+
+    @Test
+    public void shouldNotLookForCircularReferencesInRecordsAcyclicByConstruction() throws Exception {
+        Class<?> point = load("Point");
+        Object from = point.getConstructor(int.class, int.class).newInstance(1, 2);
+        Object line = load("Line").getConstructor(point, point, String.class).newInstance(from, from, "line");
+
+        assertThat(CyclicReferenceDetector.getClassesWithCircularReferences(line, new MatcherConfiguration()).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldFindCircularReferencesThroughRecords() throws Exception {
+        Class<?> holder = load("Holder");
+        List<Object> items = new ArrayList<>();
+        Object value = holder.getConstructor(List.class).newInstance(items);
+        items.add(value);
+
+        assertThat(CyclicReferenceDetector.getClassesWithCircularReferences(value, new MatcherConfiguration()).contains(holder), is(true));
+    }
+
+    private void write(String fileName, String source) throws IOException {
+        Files.write(directory.resolve(fileName), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Class<?> load(String className) throws ClassNotFoundException {
+        return Class.forName(className, true, classLoader);
+    }
+}
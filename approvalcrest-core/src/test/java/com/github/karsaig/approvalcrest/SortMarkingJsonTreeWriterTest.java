@@ -0,0 +1,127 @@
+package com.github.karsaig.approvalcrest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Tests which verify {@link SortMarkingJsonTreeWriter} keeps the arrays of Set fields to be sorted, as their adapter
+ * tells it.
+ */
+public class SortMarkingJsonTreeWriterTest {
+
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeHierarchyAdapter(Set.class, new SetAdapter())
+            .create();
+
+    @Test
+    public void shouldWriteTreesOfAdapters() {
+        JsonElement tree = SortMarkingJsonTreeWriter.toJsonTree(GSON, new Bean()).get();
+
+        assertThat(tree.getAsJsonObject().keySet(), contains("set", "list", "text"));
+        assertThat(tree.getAsJsonObject().get("set"), is(tree.getAsJsonObject().get("list")));
+    }
+
+    @Test
+    public void shouldWriteTreesToOtherWriters() {
+        assertThat(GSON.toJson(new Bean()), is("{\"set\":[\"b\",\"a\"],\"list\":[\"b\",\"a\"],\"text\":\"text\"}"));
+    }
+
+    @Test
+    public void shouldKeepArraysToSortOfFieldsOnly() {
+        SortMarkingJsonTreeWriter writer = SortMarkingJsonTreeWriter.toJsonTree(GSON, new Bean());
+        JsonObject tree = writer.get().getAsJsonObject();
+
+        Set<JsonArray> arraysToSort = writer.getArraysToSort();
+
+        assertThat(arraysToSort.size(), is(1));
+        assertThat(arraysToSort.iterator().next(), sameInstance(tree.get("set")));
+    }
+
+    @Test
+    public void shouldNotKeepArraysToSortWrittenOutsideFields() {
+        SortMarkingJsonTreeWriter writer = SortMarkingJsonTreeWriter.toJsonTree(GSON, new LinkedHashSet<>(Arrays.asList("b", "a")));
+
+        assertThat(writer.getArraysToSort(), is(empty()));
+    }
+
+    @Test
+    public void shouldLeaveOutIgnoredPaths() {
+        SortMarkingJsonTreeWriter writer = SortMarkingJsonTreeWriter.toSortedJsonTree(GSON, new Parent(), new HashSet<>(Arrays.asList("bean.set", "beans.text")));
+        JsonObject tree = writer.get().getAsJsonObject();
+
+        assertThat(tree.getAsJsonObject("bean").keySet(), contains("list", "text"));
+        assertThat(tree.getAsJsonArray("beans").get(0).getAsJsonObject().keySet(), contains("list", "set"));
+        assertThat(writer.getArraysToSort().size(), is(1));
+    }
+
+    @Test
+    public void shouldSortFieldsOfSortedTree() {
+        JsonObject tree = SortMarkingJsonTreeWriter.toSortedJsonTree(GSON, new Parent(), Collections.emptySet()).get().getAsJsonObject();
+
+        assertThat(tree.keySet(), contains("bean", "beans"));
+        assertThat(tree.getAsJsonObject("bean").keySet(), contains("list", "set", "text"));
+        assertThat(tree.getAsJsonArray("beans").get(0).getAsJsonObject().keySet(), contains("list", "set", "text"));
+    }
+
+    @Test
+    public void shouldWriteNullAsJsonNull() {
+        assertThat(SortMarkingJsonTreeWriter.toJsonTree(GSON, null).get(), is(JsonNull.INSTANCE));
+    }
+
+    @SuppressWarnings("unused")
+    private static class Parent {
+        private final Bean bean = new Bean();
+        private final List<Bean> beans = Arrays.asList(new Bean());
+    }
+
+    private static class Bean {
+        private final Set<String> set = new LinkedHashSet<>(Arrays.asList("b", "a"));
+        private final List<String> list = Arrays.asList("b", "a");
+        private final String text = "text";
+    }
+
+    /**
+     * Writes the elements of Sets in their iteration order, and tells the array written is to be sorted.
+     */
+    @SuppressWarnings("rawtypes")
+    private static class SetAdapter extends TypeAdapter<Set> {
+
+        @Override
+        public void write(JsonWriter out, Set value) throws IOException {
+            JsonArray array = new JsonArray();
+            for (Object element : value) {
+                array.add(new JsonPrimitive(element.toString()));
+            }
+            SortMarkingJsonTreeWriter.writeTree(out, array, Collections.singleton(array));
+        }
+
+        @Override
+        public Set read(JsonReader in) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import static com.github.karsaig.approvalcrest.matcher.GsonProvider.gson;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.Period;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.hamcrest.CustomTypeSafeMatcher;
+import org.hamcrest.Matcher;
+import org.junit.jupiter.api.Test;
+
+import com.github.karsaig.approvalcrest.MatcherConfiguration;
+import com.github.karsaig.approvalcrest.SortMarkingJsonTreeWriter;
+import com.github.karsaig.approvalcrest.matcher.typeadapters.InstantAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSerializer;
+
+/**
+ * Tests which verify {@link GsonProvider} reuses the {@link Gson} instances of equal configurations only, orders Sets
+ * and Maps by their JSON representation and keeps the arrays of Set and Map fields to be sorted, skips the values of ignored paths, writes primitive arrays like Gson does and
+ * writes JDK value types like the reflective adapter did and proxies as placeholders, and reuses the trees of objects
+ * referenced more than once.
+ */
+public class GsonProviderTest {
+
+    private static final Set<Class<?>> NO_CIRCULAR_REFERENCES = Collections.emptySet();
+
+    @Test
+    public void shouldReturnSameGsonForEqualConfigurations() {
+        Matcher<String> pattern = startsWith("ignored");
+        Gson first = gson(new MatcherConfiguration().addTypeToIgnore(String.class).addPatternToIgnore(pattern), NO_CIRCULAR_REFERENCES);
+        Gson second = gson(new MatcherConfiguration().addTypeToIgnore(String.class).addPatternToIgnore(pattern), NO_CIRCULAR_REFERENCES);
+
+        assertThat(second, sameInstance(first));
+    }
+
+    @Test
+    public void shouldReturnSameGsonForEquivalentConfigurationsBuiltSeparately() {
+        Gson first = gson(new MatcherConfiguration()
+                .addTypeToIgnore(String.class)
+                .addTypeToIgnore(Integer.class)
+                .addPatternToIgnore(new FieldNameIs("a"))
+                .addPathToIgnore("first")
+                .addPathToSort("first")
+                .writeMapsAsObjects(), new HashSet<>(Arrays.asList(Fields.class, SharedBeans.class)));
+        Gson second = gson(new MatcherConfiguration()
+                .addTypeToIgnore(Integer.class)
+                .addTypeToIgnore(String.class)
+                .addPatternToIgnore(new FieldNameIs("a"))
+                .addPathToIgnore("second")
+                .addPathToSort("second")
+                .writeMapsAsObjects(), new HashSet<>(Arrays.asList(SharedBeans.class, Fields.class)));
+
+        assertThat(second, sameInstance(first));
+    }
+
+    @Test
+    public void shouldReturnDifferentGsonForEqualPatternsWithoutEquals() {
+        Gson first = gson(new MatcherConfiguration().addPatternToIgnore(startsWith("ignored")), NO_CIRCULAR_REFERENCES);
+        Gson second = gson(new MatcherConfiguration().addPatternToIgnore(startsWith("ignored")), NO_CIRCULAR_REFERENCES);
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    public void shouldReturnDifferentGsonForDifferentTypesToIgnore() {
+        Gson first = gson(new MatcherConfiguration().addTypeToIgnore(String.class), NO_CIRCULAR_REFERENCES);
+        Gson second = gson(new MatcherConfiguration().addTypeToIgnore(Integer.class), NO_CIRCULAR_REFERENCES);
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    public void shouldReturnDifferentGsonForDifferentPatternsToIgnore() {
+        Gson first = gson(new MatcherConfiguration().addPatternToIgnore(startsWith("first")), NO_CIRCULAR_REFERENCES);
+        Gson second = gson(new MatcherConfiguration().addPatternToIgnore(startsWith("second")), NO_CIRCULAR_REFERENCES);
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    public void shouldReturnDifferentGsonForPatternsToIgnoreWithTheSameDescription() {
+        Gson first = gson(new MatcherConfiguration().addPatternToIgnore(fieldName("a")), NO_CIRCULAR_REFERENCES);
+        Gson second = gson(new MatcherConfiguration().addPatternToIgnore(fieldName("b")), NO_CIRCULAR_REFERENCES);
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(second.toJsonTree(new Fields()).toString(), is("{\"a\":\"A\"}"));
+    }
+
+    @Test
+    public void shouldReturnDifferentGsonForProxyClassNamePatternsWithTheSameDescription() {
+        Gson first = gson(new MatcherConfiguration().addProxyClassNamePattern(fieldName("a")), NO_CIRCULAR_REFERENCES);
+        Gson second = gson(new MatcherConfiguration().addProxyClassNamePattern(fieldName("b")), NO_CIRCULAR_REFERENCES);
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    public void shouldReturnDifferentGsonForDifferentCircularReferenceTypes() {
+        Gson first = gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES);
+        Gson second = gson(new MatcherConfiguration(), Collections.singleton(GsonProviderTest.class));
+
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    public void shouldReturnDifferentGsonForDifferentTypeAdapterInstances() {
+        GsonConfiguration firstConfig = new GsonConfiguration();
+        firstConfig.addTypeAdapter(InstantAdapter.INSTANT_TYPE, new InstantAdapter());
+        GsonConfiguration secondConfig = new GsonConfiguration();
+        secondConfig.addTypeAdapter(InstantAdapter.INSTANT_TYPE, new InstantAdapter());
+
+        Gson first = gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES, firstConfig);
+        Gson second = gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES, secondConfig);
+
+        assertThat(gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES, firstConfig), sameInstance(first));
+        assertThat(second, not(sameInstance(first)));
+    }
+
+    @Test
+    public void shouldOrderSetElementsByTheirJsonRepresentation() {
+        Set<Object> set = new HashSet<>(Arrays.asList("b", "a<", "a\"", "a", "a b", 10, 9));
+
+        String actual = gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES).toJsonTree(set).toString();
+
+        assertThat(actual, is("[\"a b\",\"a\",\"a\\\"\",\"a<\",\"b\",10,9]"));
+    }
+
+    @Test
+    public void shouldOrderSortedMapEntriesByTheirJsonRepresentation() {
+        Map<String, Integer> map = new TreeMap<>();
+        map.put("a", 1);
+        map.put("a b", 2);
+
+        String actual = gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES).toJsonTree(map).toString();
+
+        assertThat(actual, is("[{\"a b\":2},{\"a\":1}]"));
+    }
+
+    @Test
+    public void shouldSortArraysOfSetAndMapFieldsDeclaredWithTypeArguments() {
+        SortMarkingJsonTreeWriter writer = SortMarkingJsonTreeWriter.toJsonTree(gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES), new SetsAndMaps());
+        JsonObject tree = writer.get().getAsJsonObject();
+
+        assertThat(writer.getArraysToSort(), containsInAnyOrder(sameInstance(tree.get("set")), sameInstance(tree.get("map"))));
+    }
+
+    @Test
+    public void shouldSortArraysOfSetAndMapFieldsOfSetElements() {
+        SortMarkingJsonTreeWriter writer = SortMarkingJsonTreeWriter.toJsonTree(gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES), new NestedSets());
+        JsonArray elements = writer.get().getAsJsonObject().getAsJsonArray("elements");
+        JsonObject element = elements.get(0).getAsJsonObject();
+
+        assertThat(writer.getArraysToSort(), containsInAnyOrder(sameInstance(elements), sameInstance(element.get("set")), sameInstance(element.get("map"))));
+    }
+
+    @Test
+    public void shouldNotSerialiseValuesOfIgnoredPaths() {
+        GsonConfiguration config = new GsonConfiguration();
+        config.addTypeAdapter(Instant.class, (JsonSerializer<Instant>) (src, type, context) -> {
+            throw new AssertionError("ignored value was serialised");
+        });
+        Gson gson = gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES, config);
+
+        JsonElement actual = SortMarkingJsonTreeWriter.toSortedJsonTree(gson, new BeanWithInstant(), Collections.singleton("instant")).get();
+
+        assertThat(actual.toString(), is("{\"name\":\"name\"}"));
+    }
+
+    @Test
+    public void shouldWritePrimitiveArraysLikeGson() {
+        PrimitiveArrays arrays = new PrimitiveArrays();
+
+        String actual = gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES).toJson(arrays);
+
+        assertThat(actual, is(new GsonBuilder().serializeSpecialFloatingPointValues().setPrettyPrinting().create().toJson(arrays)));
+    }
+
+    @Test
+    public void shouldWriteJdkValueTypesLikeTheReflectiveAdapter() {
+        JdkValueTypes values = new JdkValueTypes();
+
+        String actual = gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES).toJsonTree(values).toString();
+
+        assertThat(actual, is("{\"duration\":{\"seconds\":90,\"nanos\":5},\"period\":{\"years\":1,\"months\":2,\"days\":3},"
+                + "\"optionalInt\":{\"isPresent\":true,\"value\":4},\"emptyOptionalLong\":{\"isPresent\":false,\"value\":0},"
+                + "\"optionalDouble\":{\"isPresent\":true,\"value\":0.5},\"optional\":{\"value\":\"value\"},"
+                + "\"optionalOfRuntimeType\":{\"value\":{\"name\":\"name\",\"instant\":\"1970-01-01T00:00:00Z\"}},\"emptyOptional\":{}}"));
+    }
+
+    @Test
+    public void shouldWriteProxiesAsPlaceholders() {
+        Runnable proxy = (Runnable) Proxy.newProxyInstance(Runnable.class.getClassLoader(), new Class<?>[]{Runnable.class}, (p, method, args) -> {
+            throw new AssertionError("proxy was invoked");
+        });
+
+        String actual = gson(new MatcherConfiguration().addProxyUnwrapper(p -> null), NO_CIRCULAR_REFERENCES).toJsonTree(Collections.singletonList(proxy)).toString();
+
+        assertThat(actual, is("[{\"$proxy\":\"java.lang.Runnable\"}]"));
+    }
+
+    @Test
+    public void shouldReuseTreeOfObjectReferencedMoreThanOnce() {
+        SortMarkingJsonTreeWriter writer = SortMarkingJsonTreeWriter.toSortedJsonTree(gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES), new SharedBeans(), Collections.emptySet());
+        JsonObject actual = writer.get().getAsJsonObject();
+
+        assertThat(actual.toString(), is("{\"first\":{\"instant\":\"1970-01-01T00:00:00Z\",\"name\":\"name\"},\"second\":{\"instant\":\"1970-01-01T00:00:00Z\",\"name\":\"name\"}}"));
+        assertThat(actual.get("second"), sameInstance(actual.get("first")));
+        assertThat(writer.getReusedElements(), contains(sameInstance(actual.get("first"))));
+    }
+
+    @Test
+    public void shouldNotReuseTreeWithIgnoredPathUnderIt() {
+        JsonObject actual = SortMarkingJsonTreeWriter.toSortedJsonTree(gson(new MatcherConfiguration(), NO_CIRCULAR_REFERENCES), new SharedBeans(), Collections.singleton("first.instant")).get().getAsJsonObject();
+
+        assertThat(actual.toString(), is("{\"first\":{\"name\":\"name\"},\"second\":{\"instant\":\"1970-01-01T00:00:00Z\",\"name\":\"name\"}}"));
+    }
+
+    @Test
+    public void shouldNotReuseTreesWhenSortingPaths() {
+        JsonObject actual = SortMarkingJsonTreeWriter.toSortedJsonTree(gson(new MatcherConfiguration().addPathToSort("first"), NO_CIRCULAR_REFERENCES), new SharedBeans(), Collections.emptySet()).get().getAsJsonObject();
+
+        assertThat(actual.get("second"), not(sameInstance(actual.get("first"))));
+    }
+
+    private static Matcher<String> fieldName(String name) {
+        return new CustomTypeSafeMatcher<String>("a generated field name") {
+            @Override
+            protected boolean matchesSafely(String item) {
+                return item.equals(name);
+            }
+        };
+    }
+
+    /**
+     * Field name pattern implementing {@code equals}, so equal instances are equal keys of the cache.
+     */
+    private static final class FieldNameIs extends CustomTypeSafeMatcher<String> {
+        private final String name;
+
+        private FieldNameIs(String name) {
+            super("field name " + name);
+            this.name = name;
+        }
+
+        @Override
+        protected boolean matchesSafely(String item) {
+            return item.equals(name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof FieldNameIs && ((FieldNameIs) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Fields {
+        private final String a = "A";
+        private final String b = "B";
+    }
+
+    @SuppressWarnings("unused")
+    private static class PrimitiveArrays {
+        private final int[] ints = {Integer.MIN_VALUE, 0, Integer.MAX_VALUE};
+        private final long[] longs = {Long.MIN_VALUE, Long.MAX_VALUE};
+        private final double[] doubles = {0.1, -0.0, 1e300, Double.NaN, Double.NEGATIVE_INFINITY};
+        private final float[] floats = {0.1f, Float.MIN_VALUE};
+        private final byte[] bytes = {-128, 127};
+        private final short[] shorts = {-1};
+        private final char[] chars = {'a', '"', '<'};
+        private final boolean[] booleans = {true, false};
+        private final int[] empty = {};
+        private final int[] missing = null;
+    }
+
+    @SuppressWarnings("unused")
+    private static class JdkValueTypes {
+        private final Duration duration = Duration.ofSeconds(90, 5);
+        private final Period period = Period.of(1, 2, 3);
+        private final OptionalInt optionalInt = OptionalInt.of(4);
+        private final OptionalLong emptyOptionalLong = OptionalLong.empty();
+        private final OptionalDouble optionalDouble = OptionalDouble.of(0.5);
+        private final Optional<String> optional = Optional.of("value");
+        private final Optional<Object> optionalOfRuntimeType = Optional.of(new BeanWithInstant());
+        private final Optional<String> emptyOptional = Optional.empty();
+    }
+
+    @SuppressWarnings({"unused", "rawtypes"})
+    private static class SetsAndMaps {
+        private final Set<String> set = new HashSet<>(Arrays.asList("b", "a"));
+        private final Map<String, String> map = new TreeMap<>(Collections.singletonMap("a", "b"));
+        private final List<String> list = Arrays.asList("b", "a");
+        private final Object object = new HashSet<>(Arrays.asList("b", "a"));
+        private final Set raw = new HashSet<>(Arrays.asList("b", "a"));
+    }
+
+    @SuppressWarnings("unused")
+    private static class NestedSets {
+        private final Set<SetsAndMaps> elements = Collections.singleton(new SetsAndMaps());
+    }
+
+    @SuppressWarnings("unused")
+    private static class SharedBeans {
+        private final BeanWithInstant first = new BeanWithInstant();
+        private final BeanWithInstant second = first;
+    }
+
+    @SuppressWarnings("unused")
+    private static class BeanWithInstant {
+        private final String name = "name";
+        private final Instant instant = Instant.EPOCH;
+    }
+}
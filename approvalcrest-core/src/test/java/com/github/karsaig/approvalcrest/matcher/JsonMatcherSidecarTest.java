@@ -0,0 +1,178 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.hamcrest.MatcherAssert;
+import org.junit.jupiter.api.Test;
+
+import com.github.karsaig.approvalcrest.util.InMemoryFiles;
+
+/**
+ * Unit test for the sidecar files of the {@link JsonMatcher}.
+ * Verifies long values are written to sidecar files, and compared by their references unless they differ, when only the
+ * values which changed are reported.
+ */
+public class JsonMatcherSidecarTest extends AbstractFileMatcherTest {
+
+    private static final String TEXT = "xxxxxxxxxxxxxxxxxxxx";
+    private static final String TEXT_SIDECAR = "d4fc1db665446507dc51b0c9392dd9649291581bfe1b48e241b2b08032b3b647.txt";
+    private static final byte[] CONTENT = {1, 2, 3, 4, 5};
+    private static final String CONTENT_SIDECAR = "74f81fe167d99b4cb41d6d0ccda82278caee9f3e2f25d5e5a3936ff3dcec60d0.bin";
+    private static final String APPROVED_JSON = "{\n" +
+            "  \"content\": {\n" +
+            "    \"$sidecar\": \"" + CONTENT_SIDECAR + "\"\n" +
+            "  },\n" +
+            "  \"name\": \"doc\",\n" +
+            "  \"text\": {\n" +
+            "    \"$sidecar\": \"" + TEXT_SIDECAR + "\"\n" +
+            "  }\n" +
+            "}";
+
+    @Test
+    public void shouldWriteLongValuesToSidecarFiles() {
+        inMemoryUnixFs(imfsi -> {
+            DummyInformation dummyTestInfo = dummyInformation(imfsi, "JsonMatcherSidecarTest", "shouldWriteLongValuesToSidecarFiles");
+            JsonMatcher<Document> underTest = MATCHER_FACTORY.<Document>jsonMatcher(dummyTestInfo, getDefaultFileMatcherConfig()).withSidecarFilesAbove(4);
+
+            assertThrows(AssertionError.class, () -> MatcherAssert.assertThat(new Document(TEXT), underTest));
+
+            MatcherAssert.assertThat(getFiles(imfsi), containsInAnyOrder(
+                    new InMemoryFiles("ab8b7a/32fdff-not-approved.json", "/*JsonMatcherSidecarTest.shouldWriteLongValuesToSidecarFiles*/\n" + APPROVED_JSON),
+                    new InMemoryFiles("ab8b7a/" + TEXT_SIDECAR, TEXT),
+                    new InMemoryFiles("ab8b7a/" + CONTENT_SIDECAR, new String(CONTENT))));
+        });
+    }
+
+    @Test
+    public void shouldMatchApprovedFileReferencingEqualSidecarFiles() {
+        inMemoryUnixFs(imfsi -> {
+            DummyInformation dummyTestInfo = dummyInformation(imfsi, "JsonMatcherSidecarTest", "shouldMatchApprovedFileReferencingEqualSidecarFiles");
+            JsonMatcher<Document> underTest = MATCHER_FACTORY.<Document>jsonMatcher(dummyTestInfo, getDefaultFileMatcherConfig()).withSidecarFilesAbove(4);
+            // the references are compared, the files are not read
+            writeFile(imfsi.getTestPath().resolve("ab8b7a").resolve("18c55e-approved.json"), APPROVED_JSON);
+
+            MatcherAssert.assertThat(new Document(TEXT), underTest);
+        });
+    }
+
+    @Test
+    public void shouldCompareValuesOfSidecarFilesWhenTheyDiffer() {
+        inMemoryUnixFs(imfsi -> {
+            DummyInformation dummyTestInfo = dummyInformation(imfsi, "JsonMatcherSidecarTest", "shouldCompareValuesOfSidecarFilesWhenTheyDiffer");
+            JsonMatcher<Document> underTest = MATCHER_FACTORY.<Document>jsonMatcher(dummyTestInfo, getDefaultFileMatcherConfig()).withSidecarFilesAbove(4);
+            Path directory = imfsi.getTestPath().resolve("ab8b7a");
+            writeFile(directory.resolve("bdc421-approved.json"), APPROVED_JSON);
+            writeFile(directory.resolve(TEXT_SIDECAR), TEXT);
+            writeFile(directory.resolve(CONTENT_SIDECAR), new String(CONTENT));
+
+            AssertionError actualError = assertThrows(AssertionError.class,
+                    () -> MatcherAssert.assertThat(new Document("yyyyyyyyyyyyyyyyyyyy"), underTest));
+
+            MatcherAssert.assertThat(actualError.getMessage(), containsString("text\nExpected: " + TEXT + "\n     got: yyyyyyyyyyyyyyyyyyyy\n"));
+        });
+    }
+
+    @Test
+    public void shouldApproveSidecarFilesByRenamingTheNotApprovedFile() {
+        inMemoryUnixFs(imfsi -> {
+            DummyInformation dummyTestInfo = dummyInformation(imfsi, "JsonMatcherSidecarTest", "shouldApproveSidecarFilesByRenamingTheNotApprovedFile");
+            assertThrows(AssertionError.class, () -> MatcherAssert.assertThat(new Document(TEXT), sidecarMatcher(dummyTestInfo)));
+
+            approveFile(imfsi.getTestPath().resolve("ab8b7a").resolve("f3669c-not-approved.json"));
+
+            MatcherAssert.assertThat(new Document(TEXT), sidecarMatcher(dummyTestInfo));
+        });
+    }
+
+    @Test
+    public void shouldReportChangedBlob() {
+        inMemoryUnixFs(imfsi -> {
+            DummyInformation dummyTestInfo = dummyInformation(imfsi, "JsonMatcherSidecarTest", "shouldReportChangedBlob");
+            assertThrows(AssertionError.class, () -> MatcherAssert.assertThat(new Document(TEXT), sidecarMatcher(dummyTestInfo)));
+            approveFile(imfsi.getTestPath().resolve("ab8b7a").resolve("7e2aa6-not-approved.json"));
+
+            AssertionError actualError = assertThrows(AssertionError.class,
+                    () -> MatcherAssert.assertThat(new Document(TEXT, new byte[]{1, 2, 3, 4, 6}), sidecarMatcher(dummyTestInfo)));
+
+            MatcherAssert.assertThat(actualError.getMessage(), containsString("content[4]\nExpected: 5\n     got: 6\n"));
+        });
+    }
+
+    @Test
+    public void shouldKeepReferenceToMissingSidecarFile() {
+        inMemoryUnixFs(imfsi -> {
+            DummyInformation dummyTestInfo = dummyInformation(imfsi, "JsonMatcherSidecarTest", "shouldKeepReferenceToMissingSidecarFile");
+            writeFile(imfsi.getTestPath().resolve("ab8b7a").resolve("241562-approved.json"), APPROVED_JSON);
+
+            AssertionError actualError = assertThrows(AssertionError.class,
+                    () -> MatcherAssert.assertThat(new Document("yyyyyyyyyyyyyyyyyyyy"), sidecarMatcher(dummyTestInfo)));
+
+            MatcherAssert.assertThat(actualError.getMessage(), containsString("text\nExpected: a JSON object\n     got: yyyyyyyyyyyyyyyyyyyy\n"));
+        });
+    }
+
+    @Test
+    public void shouldCompareSetOfLongStringsInTheOrderOfTheirReferences() {
+        inMemoryUnixFs(imfsi -> {
+            DummyInformation dummyTestInfo = dummyInformation(imfsi, "JsonMatcherSidecarTest", "shouldCompareSetOfLongStringsInTheOrderOfTheirReferences");
+            assertThrows(AssertionError.class, () -> MatcherAssert.assertThat(new TaggedDocument("one", "cccccc", "aaaaaa", "bbbbbb"), sidecarMatcher(dummyTestInfo)));
+            approveFile(imfsi.getTestPath().resolve("ab8b7a").resolve("8b0909-not-approved.json"));
+
+            AssertionError actualError = assertThrows(AssertionError.class,
+                    () -> MatcherAssert.assertThat(new TaggedDocument("two", "bbbbbb", "cccccc", "aaaaaa"), sidecarMatcher(dummyTestInfo)));
+
+            MatcherAssert.assertThat(actualError.getMessage(), endsWith("8b0909-approved.json\nname\nExpected: one\n     got: two\n"));
+        });
+    }
+
+    @Test
+    public void shouldWriteStringWithoutSidecarFiles() {
+        inMemoryUnixFs(imfsi -> {
+            DummyInformation dummyTestInfo = dummyInformation(imfsi, "JsonMatcherSidecarTest", "shouldWriteStringWithoutSidecarFiles");
+
+            assertThrows(AssertionError.class, () -> MatcherAssert.assertThat("{\"text\": \"" + TEXT + "\"}", MATCHER_FACTORY.<String>jsonMatcher(dummyTestInfo, getDefaultFileMatcherConfig()).withSidecarFilesAbove(4)));
+
+            MatcherAssert.assertThat(getFiles(imfsi), containsInAnyOrder(
+                    new InMemoryFiles("ab8b7a/f8833b-not-approved.json", "/*JsonMatcherSidecarTest.shouldWriteStringWithoutSidecarFiles*/\n{\n  \"text\": \"" + TEXT + "\"\n}")));
+        });
+    }
+
+    private JsonMatcher<Object> sidecarMatcher(DummyInformation dummyTestInfo) {
+        return MATCHER_FACTORY.jsonMatcher(dummyTestInfo, getDefaultFileMatcherConfig()).withSidecarFilesAbove(4);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Document {
+        private final String name = "doc";
+        private final String text;
+        private final byte[] content;
+
+        private Document(String text) {
+            this(text, CONTENT);
+        }
+
+        private Document(String text, byte[] content) {
+            this.text = text;
+            this.content = content;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class TaggedDocument {
+        private final String name;
+        private final Set<String> tags;
+
+        private TaggedDocument(String name, String... tags) {
+            this.name = name;
+            this.tags = new LinkedHashSet<>(Arrays.asList(tags));
+        }
+    }
+}
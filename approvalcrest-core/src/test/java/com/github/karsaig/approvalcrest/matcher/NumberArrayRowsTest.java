@@ -0,0 +1,67 @@
+package com.github.karsaig.approvalcrest.matcher;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests which verify {@link NumberArrayRows} only changes the layout of arrays of numbers.
+ */
+public class NumberArrayRowsTest {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    @Test
+    public void shouldWriteShortArrayOfNumbersOnOneLine() {
+        String actual = NumberArrayRows.rewrite(GSON.toJson(new Numbers(new double[]{1.5, -2e-10, 3}, "[1]")));
+
+        assertThat(actual, is("{\n" +
+                "  \"values\": [1.5, -2.0E-10, 3.0],\n" +
+                "  \"name\": \"[1]\"\n" +
+                "}"));
+    }
+
+    @Test
+    public void shouldWriteLongArrayOfNumbersInRows() {
+        int[] values = IntStream.range(0, 40).toArray();
+
+        String actual = NumberArrayRows.rewrite(GSON.toJson(values));
+
+        assertThat(actual, is("[\n" +
+                "  0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31,\n" +
+                "  32, 33, 34, 35, 36, 37, 38, 39\n" +
+                "]"));
+    }
+
+    @Test
+    public void shouldNotChangeArraysHoldingOtherValues() {
+        String json = GSON.toJson(new Object[]{1, "2", new int[]{3}, true});
+
+        assertThat(NumberArrayRows.rewrite(json), is(json.replace("[\n    3\n  ]", "[3]")));
+    }
+
+    @Test
+    public void shouldKeepTheTreeOfTheJson() {
+        String json = GSON.toJson(new Object[]{new long[]{Long.MIN_VALUE, 0}, IntStream.range(0, 1000).toArray(), new Numbers(new double[0], "name")});
+
+        assertThat(JsonParser.parseString(NumberArrayRows.rewrite(json)), is(JsonParser.parseString(json)));
+    }
+
+    @SuppressWarnings("unused")
+    private static class Numbers {
+        private final double[] values;
+        private final String name;
+
+        private Numbers(double[] values, String name) {
+            this.values = values;
+            this.name = name;
+        }
+    }
+}
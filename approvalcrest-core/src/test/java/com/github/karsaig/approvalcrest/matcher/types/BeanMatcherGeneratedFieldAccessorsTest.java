@@ -0,0 +1,55 @@
+package com.github.karsaig.approvalcrest.matcher.types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.karsaig.approvalcrest.matcher.AbstractBeanMatcherTest;
+import com.github.karsaig.approvalcrest.testdata.graph.GraphLeaf;
+import com.github.karsaig.approvalcrest.testdata.graph.GraphNode;
+
+class BeanMatcherGeneratedFieldAccessorsTest extends AbstractBeanMatcherTest {
+
+    @Test
+    void shouldMatchBeansReadWithGeneratedFieldAccessors() {
+        assertDiagnosingMatcher(node(1), node(1), m -> m.withGeneratedFieldAccessors(), null);
+    }
+
+    @Test
+    void shouldReportDifferenceInNestedBeanReadWithGeneratedFieldAccessors() {
+        GraphNode actual = node(1);
+        actual.getNext().setName("other");
+        assertDiagnosingMatcher(actual, node(1), m -> m.withGeneratedFieldAccessors(), "next.name\n" +
+                "Expected: node2\n" +
+                "     got: other\n");
+    }
+
+    @Test
+    void shouldIgnorePathWhenFieldsAreReadWithGeneratedFieldAccessors() {
+        GraphNode actual = node(1);
+        actual.getNext().setName("other");
+        assertDiagnosingMatcher(actual, node(1), m -> m.withGeneratedFieldAccessors().ignoring("next.name"), null);
+    }
+
+    @Test
+    void shouldIgnoreFieldPatternWhenFieldsAreReadWithGeneratedFieldAccessors() {
+        GraphNode actual = node(1);
+        actual.getAttributes().put("first", new GraphLeaf(7, "changed", 7));
+        assertDiagnosingMatcher(actual, node(1), m -> m.withGeneratedFieldAccessors().ignoring("attributes"), null);
+    }
+
+    private static GraphNode node(long id) {
+        GraphNode node = new GraphNode(id);
+        node.setNext(new GraphNode(id + 1));
+        node.setChildren(new ArrayList<>(Arrays.asList(new GraphNode(id + 2), new GraphNode(id + 3))));
+        node.setTags(new HashSet<>(Arrays.asList("b", "a")));
+        Map<String, GraphLeaf> attributes = new HashMap<>();
+        attributes.put("first", new GraphLeaf(1, "first", 1));
+        node.setAttributes(attributes);
+        return node;
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.karsaig.approvalcrest.matcher.types;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.karsaig.approvalcrest.matcher.AbstractBeanMatcherTest;
+import com.github.karsaig.approvalcrest.testdata.graph.GraphLeaf;
+import com.github.karsaig.approvalcrest.testdata.graph.GraphNode;
+
+class BeanMatcherMapsAsObjectsTest extends AbstractBeanMatcherTest {
+
+    @Test
+    void shouldMatchMapsWrittenAsObjects() {
+        assertDiagnosingMatcher(node("first", "second"), node("second", "first"), m -> m.withMapsAsObjects(), null);
+    }
+
+    @Test
+    void shouldReportDifferenceByKeyWhenMapsAreWrittenAsObjects() {
+        assertDiagnosingMatcher(node("first", "second"), node("first", "third"), m -> m.withMapsAsObjects(), "attributes\n" +
+                "Expected: third\n" +
+                "     but none found\n" +
+                " ; attributes\n" +
+                "Unexpected: second\n");
+    }
+
+    @Test
+    void shouldIgnorePathThroughKeyWhenMapsAreWrittenAsObjects() {
+        GraphNode actual = node("first", "second");
+        actual.getAttributes().put("second", new GraphLeaf(6, "second", 100));
+        assertDiagnosingMatcher(actual, node("first", "second"), m -> m.withMapsAsObjects().ignoring("attributes.second.weight"), null);
+    }
+
+    @Test
+    void shouldWriteMapWithKeysOfSameStringFormAsArrayWhenMapsAreWrittenAsObjects() {
+        Map<Object, String> map = new HashMap<>();
+        map.put(1, "int");
+        map.put("1", "string");
+        Map<Object, String> expected = new HashMap<>(map);
+        expected.put(1, "other");
+        assertDiagnosingMatcher(map, expected, m -> m.withMapsAsObjects(), "[0].1\n" +
+                "Expected: other\n" +
+                "     got: int\n");
+    }
+
+    private static GraphNode node(String... keys) {
+        GraphNode node = new GraphNode(1);
+        Map<String, GraphLeaf> attributes = new HashMap<>();
+        for (String key : keys) {
+            attributes.put(key, new GraphLeaf(key.length(), key, 1));
+        }
+        node.setAttributes(attributes);
+        return node;
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.karsaig.approvalcrest.matcher.types;
+
+import static org.hamcrest.Matchers.endsWith;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.karsaig.approvalcrest.matcher.AbstractBeanMatcherTest;
+
+/**
+ * Verifies proxies are compared without being initialised, JDK dynamic proxies standing in for the lazy loading proxies
+ * of ORM layers.
+ */
+class BeanMatcherProxyTest extends AbstractBeanMatcherTest {
+
+    @Test
+    void shouldMatchProxiesNotUnwrappedWithoutInitialisingThem() {
+        assertDiagnosingMatcher(new Order(lazyCustomer(new Person("actual"))), new Order(lazyCustomer(new Person("expected"))),
+                m -> m.withProxyUnwrapper(proxy -> null), null);
+    }
+
+    @Test
+    void shouldMatchUnwrappedProxyWithTheObjectItStandsFor() {
+        assertDiagnosingMatcher(new Order(lazyCustomer(new Person("name"))), new Order(new Person("name")),
+                m -> m.withProxyUnwrapper(BeanMatcherProxyTest::loadedCustomer), null);
+    }
+
+    @Test
+    void shouldReportDifferenceInUnwrappedProxy() {
+        assertDiagnosingMatcher(new Order(lazyCustomer(new Person("other"))), new Order(new Person("name")),
+                m -> m.withProxyUnwrapper(BeanMatcherProxyTest::loadedCustomer), "customer.name\n" +
+                        "Expected: name\n" +
+                        "     got: other\n");
+    }
+
+    @Test
+    void shouldMatchProxiesOfClassNamePatternWithoutReadingTheirFields() {
+        assertDiagnosingMatcher(new Order(new PersonProxy("actual")), new Order(new PersonProxy("expected")),
+                m -> m.withProxyClasses(endsWith("PersonProxy")), null);
+    }
+
+    private static Customer lazyCustomer(Person person) {
+        return (Customer) Proxy.newProxyInstance(Customer.class.getClassLoader(), new Class<?>[]{Customer.class}, new LazyLoader(person));
+    }
+
+    private static Object loadedCustomer(Object proxy) {
+        InvocationHandler handler = Proxy.getInvocationHandler(proxy);
+        return handler instanceof LazyLoader ? ((LazyLoader) handler).person : null;
+    }
+
+    private interface Customer {
+        String getName();
+    }
+
+    @SuppressWarnings("unused")
+    private static class Person implements Customer {
+        private final String name;
+
+        private Person(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class PersonProxy extends Person {
+        private final String interceptor;
+
+        private PersonProxy(String interceptor) {
+            super(null);
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public String getName() {
+            throw new AssertionError("proxy was initialised");
+        }
+    }
+
+    private static class LazyLoader implements InvocationHandler {
+        private final Person person;
+
+        private LazyLoader(Person person) {
+            this.person = person;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            throw new AssertionError("proxy was initialised");
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static class Order {
+        private final Customer customer;
+
+        private Order(Customer customer) {
+            this.customer = customer;
+        }
+    }
+}
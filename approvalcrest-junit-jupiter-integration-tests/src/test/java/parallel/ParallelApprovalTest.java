@@ -0,0 +1,108 @@
+package parallel;
+
+import static com.github.karsaig.approvalcrest.jupiter.MatcherAssert.assertThat;
+import static com.github.karsaig.approvalcrest.jupiter.matcher.Matchers.sameBeanAs;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static parallel.ParallelApprovalWorkload.INVOCATIONS;
+import static parallel.ParallelApprovalWorkload.TEST_METHODS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+/**
+ * Runs {@link ParallelApprovalWorkload} with JUnit Jupiter parallel execution on different number of threads, prints
+ * the throughput and checks that every assertion passed and the approved files are untouched.
+ */
+public class ParallelApprovalTest {
+
+    private static final String NOT_APPROVED = "-not-approved.";
+    private static final String APPROVED = "-approved.";
+
+    @TempDir
+    static Path approvedRoot;
+
+    private static Map<String, String> approvedFiles;
+
+    @BeforeAll
+    static void approveWorkload() throws IOException {
+        ParallelApprovalWorkload.approvedRoot = approvedRoot;
+        // every assertion fails creating its not approved file
+        run(false, 1);
+        try (Stream<Path> files = Files.list(approvedRoot)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.move(file, file.resolveSibling(file.getFileName().toString().replace(NOT_APPROVED, APPROVED)));
+            }
+        }
+        approvedFiles = readFiles();
+
+        assertThat(approvedFiles.size(), sameBeanAs(2 * INVOCATIONS + 1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 16, 64})
+    void approvalsShouldPassAndKeepApprovedFilesIntactWhenRunInParallel(int threads) throws IOException {
+        long start = System.nanoTime();
+        TestExecutionSummary summary = run(true, threads);
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.println(String.format(Locale.ENGLISH, "Parallel approvals on %d threads: %d assertions in %d ms, %.1f assertions/s",
+                threads, summary.getTestsSucceededCount(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                summary.getTestsSucceededCount() * 1e9 / elapsedNanos));
+
+        assertThat(failures(summary), sameBeanAs(Collections.<String>emptyList()));
+        assertThat(summary.getTestsSucceededCount(), sameBeanAs((long) TEST_METHODS * INVOCATIONS));
+        assertThat(readFiles(), sameBeanAs(approvedFiles));
+    }
+
+    private static TestExecutionSummary run(boolean parallel, int threads) {
+        LauncherDiscoveryRequest request = LauncherDiscoveryRequestBuilder.request()
+                .selectors(selectClass(ParallelApprovalWorkload.class))
+                .configurationParameter("junit.jupiter.execution.parallel.enabled", String.valueOf(parallel))
+                .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+                .configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+                .configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", String.valueOf(threads))
+                .build();
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        LauncherFactory.create().execute(request, listener);
+        return listener.getSummary();
+    }
+
+    private static List<String> failures(TestExecutionSummary summary) {
+        return summary.getFailures().stream()
+                .map(f -> f.getTestIdentifier().getDisplayName() + ": " + f.getException())
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, String> readFiles() throws IOException {
+        try (Stream<Path> files = Files.list(approvedRoot)) {
+            return files.collect(Collectors.toMap(p -> p.getFileName().toString(), ParallelApprovalTest::read));
+        }
+    }
+
+    private static String read(Path file) {
+        try {
+            return new String(Files.readAllBytes(file), UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
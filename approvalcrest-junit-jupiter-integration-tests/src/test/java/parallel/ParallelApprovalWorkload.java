@@ -0,0 +1,58 @@
+package parallel;
+
+import static com.github.karsaig.approvalcrest.jupiter.MatcherAssert.assertThat;
+import static com.github.karsaig.approvalcrest.jupiter.matcher.Matchers.sameContentAsApproved;
+import static com.github.karsaig.approvalcrest.jupiter.matcher.Matchers.sameJsonAsApproved;
+import static com.github.karsaig.approvalcrest.util.TestDataGenerator.generatePerson;
+
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Approval workload for {@link ParallelApprovalTest}, which runs it with the JUnit Platform launcher. It is not picked
+ * up by surefire on its own, {@link #approvedRoot} is only set by {@link ParallelApprovalTest}.
+ */
+public class ParallelApprovalWorkload {
+
+    static final int INVOCATIONS = 200;
+    static final int TEST_METHODS = 3;
+
+    static volatile Path approvedRoot;
+
+    static IntStream indexes() {
+        return IntStream.range(0, INVOCATIONS);
+    }
+
+    @ParameterizedTest
+    @MethodSource("indexes")
+    void sameJsonAsApprovedPerInvocation(int index, TestInfo testInfo) {
+        assertThat(generatePerson(index), sameJsonAsApproved(testInfo).withPath(approvedRoot));
+    }
+
+    @ParameterizedTest
+    @MethodSource("indexes")
+    void sameContentAsApprovedPerInvocation(int index, TestInfo testInfo) {
+        assertThat(content(index), sameContentAsApproved(testInfo).withPath(approvedRoot));
+    }
+
+    /**
+     * Every invocation reads the same approved file.
+     */
+    @ParameterizedTest
+    @MethodSource("indexes")
+    void sameJsonAsApprovedShared(int index, TestInfo testInfo) {
+        assertThat(generatePerson(0L), sameJsonAsApproved(testInfo).withPath(approvedRoot).withUniqueId("shared"));
+    }
+
+    private static String content(int index) {
+        StringBuilder result = new StringBuilder();
+        for (int line = 0; line <= index % 10; ++line) {
+            result.append("Line ").append(line).append(" of content ").append(index).append('\n');
+        }
+        return result.toString();
+    }
+}
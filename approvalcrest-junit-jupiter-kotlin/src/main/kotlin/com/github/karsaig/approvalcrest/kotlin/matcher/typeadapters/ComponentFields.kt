@@ -0,0 +1,117 @@
+package com.github.karsaig.approvalcrest.kotlin.matcher.typeadapters
+
+import java.io.DataInputStream
+import java.io.IOException
+
+/**
+ * Finds the fields the `componentN` functions of a data class return by reading its class file, as neither the order of
+ * the fields nor their names tell which of them belong to the primary constructor properties. A `componentN` function
+ * returning a property with a backing field is compiled to `aload_0; getfield; return`.
+ */
+internal object ComponentFields {
+
+    private const val ALOAD_0 = 0x2a
+    private const val GETFIELD = 0xb4
+
+    /**
+     * @param type    the data class
+     * @param methods the names of the functions to find the fields of
+     * @return the name of the field each function returns, the functions not simply returning a field of the class left
+     * out, or null if the class file can't be read
+     */
+    fun of(type: Class<*>, methods: Set<String>): Map<String, String>? {
+        val classFile = type.getResourceAsStream("/" + type.name.replace('.', '/') + ".class") ?: return null
+        return try {
+            DataInputStream(classFile.buffered()).use { read(it, methods) }
+        } catch (e: IOException) {
+            null
+        }
+    }
+
+    private fun read(input: DataInputStream, methods: Set<String>): Map<String, String> {
+        input.skipFully(8)
+        val constants = readConstantPool(input)
+        input.skipFully(6)
+        input.skipFully(2 * input.readUnsignedShort())
+        repeat(input.readUnsignedShort()) { skipMember(input) }
+        val returnedFields = HashMap<String, String>()
+        repeat(input.readUnsignedShort()) {
+            input.skipFully(2)
+            val name = constants.utf8(input.readUnsignedShort())
+            input.skipFully(2)
+            repeat(input.readUnsignedShort()) {
+                val attribute = constants.utf8(input.readUnsignedShort())
+                val length = input.readInt()
+                if (name in methods && attribute == "Code") {
+                    input.skipFully(4)
+                    val code = ByteArray(input.readInt())
+                    input.readFully(code)
+                    constants.returnedField(code)?.let { returnedFields[name] = it }
+                    input.skipFully(length - 8 - code.size)
+                } else {
+                    input.skipFully(length)
+                }
+            }
+        }
+        return returnedFields
+    }
+
+    private fun readConstantPool(input: DataInputStream): ConstantPool {
+        val count = input.readUnsignedShort()
+        val utf8 = arrayOfNulls<String>(count)
+        val references = IntArray(count)
+        var i = 1
+        while (i < count) {
+            when (val tag = input.readUnsignedByte()) {
+                1 -> utf8[i] = input.readUTF()
+                7, 8, 16, 19, 20 -> references[i] = input.readUnsignedShort()
+                9, 10, 11, 12 -> references[i] = input.readInt()
+                3, 4, 17, 18 -> input.skipFully(4)
+                15 -> input.skipFully(3)
+                5, 6 -> {
+                    input.skipFully(8)
+                    i++
+                }
+                else -> throw IOException("Unknown constant pool tag $tag")
+            }
+            i++
+        }
+        return ConstantPool(utf8, references)
+    }
+
+    private fun skipMember(input: DataInputStream) {
+        input.skipFully(6)
+        repeat(input.readUnsignedShort()) {
+            input.skipFully(2)
+            input.skipFully(input.readInt())
+        }
+    }
+
+    private fun DataInputStream.skipFully(bytes: Int) {
+        var remaining = bytes
+        while (remaining > 0) {
+            val skipped = skipBytes(remaining)
+            if (skipped <= 0) {
+                throw IOException("Unexpected end of class file")
+            }
+            remaining -= skipped
+        }
+    }
+
+    /**
+     * @param references the two indices of the Fieldref, Methodref and NameAndType entries, the index of the others
+     */
+    private class ConstantPool(private val utf8: Array<String?>, private val references: IntArray) {
+
+        fun utf8(index: Int): String = utf8[index] ?: throw IOException("Not a Utf8 constant: $index")
+
+        fun returnedField(code: ByteArray): String? {
+            if (code.size != 5 || code[0].toInt() and 0xff != ALOAD_0 || code[1].toInt() and 0xff != GETFIELD) {
+                return null
+            }
+            val fieldref = (code[2].toInt() and 0xff shl 8) or (code[3].toInt() and 0xff)
+            val nameAndType = references[fieldref] and 0xffff
+            return utf8(references[nameAndType] ushr 16)
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.karsaig.approvalcrest.kotlin.matcher.typeadapters
+
+import com.github.karsaig.approvalcrest.FieldReader
+import com.github.karsaig.approvalcrest.matcher.GsonConfiguration
+import com.github.karsaig.approvalcrest.matcher.ReflectiveAdapters
+import com.google.gson.Gson
+import com.google.gson.TypeAdapter
+import com.google.gson.TypeAdapterFactory
+import com.google.gson.annotations.JsonAdapter
+import com.google.gson.annotations.SerializedName
+import com.google.gson.internal.`$Gson$Types`
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory
+import com.google.gson.reflect.TypeToken
+import com.google.gson.stream.JsonReader
+import com.google.gson.stream.JsonWriter
+import java.lang.reflect.Field
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.lang.reflect.Type
+
+/**
+ * A [GsonConfiguration] writing Kotlin data classes and value classes with [KotlinTypeAdapterFactory], to be passed to
+ * `withGsonConfiguration`.
+ */
+fun kotlinGsonConfiguration(): GsonConfiguration = GsonConfiguration().apply { addTypeAdapterFactory(KotlinTypeAdapterFactory) }
+
+/**
+ * Writes Kotlin data classes through the `componentN` functions of their primary constructor properties and value
+ * classes as the value they wrap, without kotlin-reflect.
+ *
+ * A data class is written with the properties its `equals` compares: the properties declared in the class body and the
+ * `$delegate` fields of delegated properties are left out. The values are read by one [FieldReader] per class calling
+ * the `componentN` functions. A value class is written like it is written when stored unboxed in a property of a non
+ * nullable type, so the JSON doesn't depend on the nullability of the properties holding it.
+ *
+ * Only the reflective adapters of Gson are replaced, so adapters registered for these classes, the circular reference
+ * handling and the ignore rules of the matchers still apply. Like the reflective adapter, a class is only written by this
+ * factory if its supertypes are written reflectively, and classes with fields using [JsonAdapter] are left to Gson.
+ */
+object KotlinTypeAdapterFactory : TypeAdapterFactory {
+
+    private val COMPONENT = Regex("component([1-9][0-9]*)(-.+)?")
+
+    private val SHAPES = object : ClassValue<KotlinClassShape>() {
+        override fun computeValue(type: Class<*>): KotlinClassShape = shapeOf(type)
+    }
+
+    override fun <T> create(gson: Gson, type: TypeToken<T>): TypeAdapter<T> {
+        val delegate = gson.getDelegateAdapter(this, type)
+        if (delegate !is ReflectiveTypeAdapterFactory.Adapter<*>) {
+            return delegate
+        }
+        val shape = SHAPES.get(type.rawType)
+        if (shape == KotlinClassShape.Other || !ReflectiveAdapters.areSupertypesWrittenReflectively(gson, this, type.rawType)) {
+            return delegate
+        }
+        val excluder = gson.excluder()
+        val writers = shape.fields.map { field ->
+            if (excluder.excludeClass(field.type, true) || excluder.excludeField(field, true)) {
+                null
+            } else {
+                val fieldType = `$Gson$Types`.resolve(type.type, type.rawType, field.genericType)
+                @Suppress("UNCHECKED_CAST")
+                ValueWriter(gson, fieldType, gson.getAdapter(TypeToken.get(fieldType)))
+            }
+        }
+        // delegate is smart cast to the reflective adapter of an unknown type
+        @Suppress("UNCHECKED_CAST")
+        val typedDelegate = delegate as TypeAdapter<T>
+        return when (shape) {
+            is KotlinClassShape.DataClass -> DataClassAdapter<T>(typedDelegate, shape.fields.map { getFieldName(gson, it) }, writers, shape.reader)
+            is KotlinClassShape.ValueClass -> writers[0]?.let { ValueClassAdapter<T>(typedDelegate, it, shape.reader) } ?: typedDelegate
+            KotlinClassShape.Other -> typedDelegate
+        }
+    }
+
+    private fun getFieldName(gson: Gson, field: Field): String =
+            field.getAnnotation(SerializedName::class.java)?.value ?: gson.fieldNamingStrategy().translateName(field)
+
+    private fun shapeOf(type: Class<*>): KotlinClassShape {
+        if (type.getAnnotation(Metadata::class.java)?.kind != CLASS_KIND || type.isInterface || type.isEnum) {
+            return KotlinClassShape.Other
+        }
+        val fields = type.declaredFields.filter { !Modifier.isStatic(it.modifiers) }
+        if (fields.any { it.getAnnotation(JsonAdapter::class.java) != null }) {
+            return KotlinClassShape.Other
+        }
+        val methods = type.declaredMethods
+        val unbox = methods.find { it.name == "unbox-impl" && it.parameterCount == 0 && !Modifier.isStatic(it.modifiers) }
+        if (unbox != null && fields.size == 1 && methods.any { it.name == "box-impl" && Modifier.isStatic(it.modifiers) }) {
+            return KotlinClassShape.ValueClass(fields, FieldReader.ofAccessors(fields, listOf(unbox)))
+        }
+        return dataClassShapeOf(type, fields, methods) ?: KotlinClassShape.Other
+    }
+
+    /**
+     * The primary constructor properties are the ones returned by the `componentN` functions, the names of which are
+     * mangled when they return a value class.
+     */
+    private fun dataClassShapeOf(type: Class<*>, fields: List<Field>, methods: Array<Method>): KotlinClassShape.DataClass? {
+        if (methods.none { it.name == "copy" || it.name.startsWith("copy-") }) {
+            return null
+        }
+        val components = methods
+                .filter { it.parameterCount == 0 && !Modifier.isStatic(it.modifiers) }
+                .mapNotNull { method -> COMPONENT.matchEntire(method.name)?.let { it.groupValues[1].toInt() to method } }
+                .toMap()
+        if (components.isEmpty() || components.size > fields.size) {
+            return null
+        }
+        val accessors = (1..components.size).map { components[it] ?: return null }
+        val returnedFields = ComponentFields.of(type, accessors.map { it.name }.toSet()) ?: return null
+        val componentFields = accessors.map { accessor -> fields.find { it.name == returnedFields[accessor.name] } ?: return null }
+        if (componentFields.zip(accessors).any { (field, accessor) -> field.type != accessor.returnType }) {
+            return null
+        }
+        return KotlinClassShape.DataClass(componentFields, FieldReader.ofAccessors(componentFields, accessors))
+    }
+
+    private const val CLASS_KIND = 1
+
+    private sealed class KotlinClassShape(val fields: List<Field>) {
+        object Other : KotlinClassShape(emptyList())
+        class DataClass(fields: List<Field>, val reader: FieldReader) : KotlinClassShape(fields)
+        class ValueClass(fields: List<Field>, val reader: FieldReader) : KotlinClassShape(fields)
+    }
+
+    /**
+     * Writes a value with the adapter Gson would choose for it, see [ReflectiveAdapters.chooseAdapter].
+     */
+    private class ValueWriter(private val gson: Gson, private val type: Type, private val adapter: TypeAdapter<*>) {
+
+        fun write(out: JsonWriter, value: Any?) {
+            @Suppress("UNCHECKED_CAST")
+            (ReflectiveAdapters.chooseAdapter(gson, type, adapter, value) as TypeAdapter<Any?>).write(out, value)
+        }
+    }
+
+    /**
+     * @param names   the JSON names of the properties
+     * @param writers the writers of the properties in the order of the values read, null for a value not to write
+     */
+    private class DataClassAdapter<T>(
+            private val delegate: TypeAdapter<T>,
+            private val names: List<String>,
+            private val writers: List<ValueWriter?>,
+            private val reader: FieldReader
+    ) : TypeAdapter<T>() {
+
+        override fun write(out: JsonWriter, value: T?) {
+            if (value == null) {
+                out.nullValue()
+                return
+            }
+            val values = reader.read(value)
+            out.beginObject()
+            for (i in writers.indices) {
+                val writer = writers[i]
+                // like the reflective adapter, a property referencing the object itself is left out
+                if (writer != null && values[i] !== value) {
+                    out.name(names[i])
+                    writer.write(out, values[i])
+                }
+            }
+            out.endObject()
+        }
+
+        override fun read(reader: JsonReader): T = delegate.read(reader)
+    }
+
+    private class ValueClassAdapter<T>(
+            private val delegate: TypeAdapter<T>,
+            private val writer: ValueWriter,
+            private val reader: FieldReader
+    ) : TypeAdapter<T>() {
+
+        override fun write(out: JsonWriter, value: T?) {
+            if (value == null) {
+                out.nullValue()
+                return
+            }
+            writer.write(out, reader.read(value)[0])
+        }
+
+        override fun read(reader: JsonReader): T = delegate.read(reader)
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.karsaig.approvalcrest.kotlin.matcher.typeadapters
+
+import com.github.karsaig.approvalcrest.jupiter.MatcherAssert
+import com.github.karsaig.approvalcrest.jupiter.matcher.Matchers
+import com.google.gson.GsonBuilder
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.Test
+
+class KotlinTypeAdapterFactoryTest {
+
+    private val gson = GsonBuilder().registerTypeAdapterFactory(KotlinTypeAdapterFactory).create()
+
+    @Test
+    fun shouldWriteOnlyPrimaryConstructorPropertiesOfDataClasses() {
+        val person = Person(1, "name", listOf("first"))
+        person.description
+        person.note = "note"
+
+        assertEquals("""{"id":1,"name":"name","tags":["first"]}""", gson.toJson(person))
+    }
+
+    @Test
+    fun shouldWriteValueClassesAsTheValueTheyWrap() {
+        assertEquals("""{"id":"a","optionalId":"b"}""", gson.toJson(Order(Id("a"), Id("b"))))
+        assertEquals("""{"id":"a"}""", gson.toJson(Order(Id("a"), null)))
+    }
+
+    @Test
+    fun shouldWriteDataClassesHeldInTypeParameters() {
+        assertEquals("""{"value":{"id":"a"}}""", gson.toJson(Box(Order(Id("a"), null))))
+    }
+
+    @Test
+    fun shouldMatchDataClassesDifferingInPropertiesDeclaredInTheirBody() {
+        val actual = Account(1)
+        actual.note = "note"
+
+        MatcherAssert.assertThat(actual, Matchers.sameBeanAs(Account(1)).withGsonConfiguration(kotlinGsonConfiguration()))
+    }
+
+    @Test
+    fun shouldNotMatchDataClassesDifferingInPrimaryConstructorProperties() {
+        assertThrows(AssertionError::class.java) {
+            MatcherAssert.assertThat(Account(1), Matchers.sameBeanAs(Account(2)).withGsonConfiguration(kotlinGsonConfiguration()))
+        }
+    }
+
+    data class Person(val id: Int, val name: String, val tags: List<String>) {
+        val description: String by lazy { "$id $name" }
+        var note: String? = null
+    }
+
+    // no lazy property, its initializer references the object until it is initialised, a circular reference
+    data class Account(val id: Int) {
+        var note: String? = null
+    }
+
+    data class Order(val id: Id, val optionalId: Id?)
+
+    data class Box<T>(val value: T)
+}
+
+inline class Id(val value: String)
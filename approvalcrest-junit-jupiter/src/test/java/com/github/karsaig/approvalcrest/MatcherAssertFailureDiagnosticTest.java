@@ -9,7 +9,6 @@
  */
 package com.github.karsaig.approvalcrest;
 
-import static com.github.karsaig.approvalcrest.FieldsIgnorer.MARKER;
 import static com.github.karsaig.approvalcrest.jupiter.MatcherAssert.assertThat;
 import static com.github.karsaig.approvalcrest.jupiter.matcher.Matchers.sameBeanAs;
 import static com.github.karsaig.approvalcrest.matchers.ComparisonFailureMatchers.actual;
@@ -41,6 +40,11 @@ import com.github.karsaig.approvalcrest.testdata.Bean;
 @SuppressWarnings("unchecked")
 public class MatcherAssertFailureDiagnosticTest {
 
+    /**
+     * The prefix Set and Map field names were once marked with to be sorted.
+     */
+    private static final String MARKER = "!_TO_BE_SORTED_!";
+
     @Test
     public void containsDiagnosticsWhenActualIsNull() {
         Bean expected = bean().string("value1").integer(1).build();
@@ -0,0 +1,77 @@
+package com.github.karsaig.approvalcrest.processor;
+
+import java.util.List;
+
+/**
+ * The source code of the accessor of an {@code ApprovedDto} class.
+ */
+final class AccessorSource {
+
+    private static final String ACCESSOR = "com.github.karsaig.approvalcrest.ApprovedDtoAccessor";
+
+    private final String packageName;
+    private final String simpleName;
+    private final String dtoName;
+    private final List<DtoProperty> properties;
+
+    /**
+     * @param packageName the package of the annotated class, empty for the unnamed package
+     * @param simpleName  the simple name of the accessor
+     * @param dtoName     the canonical name of the annotated class
+     * @param properties  the fields of the annotated class, in the order they are read
+     */
+    AccessorSource(String packageName, String simpleName, String dtoName, List<DtoProperty> properties) {
+        this.packageName = packageName;
+        this.simpleName = simpleName;
+        this.dtoName = dtoName;
+        this.properties = properties;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder source = new StringBuilder();
+        source.append("// Generated by ").append(ApprovedDtoProcessor.class.getName()).append(", do not edit.\n");
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n");
+        }
+        source.append('\n');
+        source.append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+        source.append("public final class ").append(simpleName).append(" extends ").append(ACCESSOR).append('<').append(dtoName).append("> {\n\n");
+
+        source.append("    public ").append(simpleName).append("() {\n");
+        source.append("        super(").append(dtoName).append(".class");
+        for (DtoProperty property : properties) {
+            source.append(",\n                property(").append(stringLiteral(property.getFieldName())).append(", ")
+                    .append(property.getSerializedName() == null ? "null" : stringLiteral(property.getSerializedName())).append(", ")
+                    .append(property.getDeclaringClassLevel()).append(", ")
+                    .append(property.getTypeLiteral()).append(')');
+        }
+        source.append(");\n");
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public Object[] read(").append(dtoName).append(" object) {\n");
+        source.append("        return new Object[] {");
+        for (int i = 0; i < properties.size(); ++i) {
+            source.append(i == 0 ? "\n" : ",\n").append("                ").append(properties.get(i).getReadExpression());
+        }
+        source.append("\n        };\n");
+        source.append("    }\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    private static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                literal.append('\\').append(c);
+            } else if (c < ' ' || c > '~') {
+                literal.append(String.format("\\u%04x", (int) c));
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,240 @@
+package com.github.karsaig.approvalcrest.processor;
+
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.element.Modifier.TRANSIENT;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates the {@code ApprovedDtoAccessor} of each class annotated with {@code ApprovedDto}, which reads the fields
+ * Gson would serialise without reflection: the non static, non transient fields of the class and its superclasses.
+ * Fields not visible from the package of the class are read through their getters. The accessors generated are listed in
+ * the {@code ApprovedDtoAccessor} index resource, so the matchers only look for accessors when there are some.
+ * <p>
+ * The annotations are referred to by name, so the processor has no dependencies.
+ */
+@SupportedAnnotationTypes(ApprovedDtoProcessor.APPROVED_DTO)
+public class ApprovedDtoProcessor extends AbstractProcessor {
+
+    static final String APPROVED_DTO = "com.github.karsaig.approvalcrest.ApprovedDto";
+    static final String ACCESSOR_SUFFIX = "_ApprovedDtoAccessor";
+    static final String INDEX = "META-INF/approvalcrest/approved-dto-accessors";
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+
+    private final List<String> accessorNames = new ArrayList<>();
+    private final List<Element> dtos = new ArrayList<>();
+    private Elements elements;
+    private Types types;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        elements = processingEnv.getElementUtils();
+        types = processingEnv.getTypeUtils();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                try {
+                    TypeElement dto = checkAnnotatedClass(element);
+                    writeAccessor(dto, getProperties(dto));
+                } catch (InvalidDtoException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), e.element);
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !accessorNames.isEmpty()) {
+            writeIndex();
+        }
+        return true;
+    }
+
+    private TypeElement checkAnnotatedClass(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            throw new InvalidDtoException(element, "@ApprovedDto is only supported on classes");
+        }
+        TypeElement dto = (TypeElement) element;
+        if (!dto.getTypeParameters().isEmpty()) {
+            throw new InvalidDtoException(dto, "@ApprovedDto is not supported on classes with type parameters");
+        }
+        for (Element enclosing = dto; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            NestingKind nestingKind = ((TypeElement) enclosing).getNestingKind();
+            if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS) {
+                throw new InvalidDtoException(dto, "@ApprovedDto is not supported on local classes");
+            }
+            if (enclosing.getModifiers().contains(PRIVATE)) {
+                throw new InvalidDtoException(dto, "@ApprovedDto is not supported on private classes, " + enclosing + " is private");
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * Collects the fields of the class and its superclasses, ordered by their JSON name.
+     */
+    private List<DtoProperty> getProperties(TypeElement dto) {
+        DeclaredType dtoType = (DeclaredType) dto.asType();
+        List<DtoProperty> properties = new ArrayList<>();
+        Set<String> jsonNames = new HashSet<>();
+        Set<String> fieldNamesOfSubclasses = new HashSet<>();
+        int level = 0;
+        for (TypeElement type = dto; type != null; type = getSuperclass(type), ++level) {
+            List<VariableElement> fields = ElementFilter.fieldsIn(type.getEnclosedElements());
+            for (VariableElement field : fields) {
+                if (field.getModifiers().contains(STATIC) || field.getModifiers().contains(TRANSIENT)) {
+                    continue;
+                }
+                if (getAnnotation(field, JSON_ADAPTER) != null) {
+                    throw new InvalidDtoException(field, "@JsonAdapter fields are not supported in @ApprovedDto classes");
+                }
+                String fieldName = field.getSimpleName().toString();
+                if (fieldNamesOfSubclasses.contains(fieldName)) {
+                    throw new InvalidDtoException(field, "Field " + fieldName + " of " + type + " is hidden by a field of a subclass of it, which is not supported in @ApprovedDto classes");
+                }
+                TypeMirror fieldType = types.asMemberOf(dtoType, field);
+                String serializedName = getSerializedName(field);
+                String jsonName = serializedName == null ? fieldName : serializedName;
+                if (!jsonNames.add(jsonName)) {
+                    throw new InvalidDtoException(field, dto + " declares multiple JSON fields named " + jsonName);
+                }
+                properties.add(new DtoProperty(fieldName, serializedName, level, TypeLiterals.of(field, fieldType), getReadExpression(dto, dtoType, field, fieldType)));
+            }
+            for (VariableElement field : fields) {
+                fieldNamesOfSubclasses.add(field.getSimpleName().toString());
+            }
+        }
+        properties.sort(Comparator.comparing(DtoProperty::getJsonName));
+        return properties;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement superElement = (TypeElement) types.asElement(superclass);
+        return superElement.getQualifiedName().contentEquals(Object.class.getName()) ? null : superElement;
+    }
+
+    private String getReadExpression(TypeElement dto, DeclaredType dtoType, VariableElement field, TypeMirror fieldType) {
+        if (isVisibleFrom(dto, field)) {
+            return "object." + field.getSimpleName();
+        }
+        ExecutableElement getter = findGetter(dto, dtoType, field, fieldType);
+        if (getter == null) {
+            throw new InvalidDtoException(field, "Field " + field.getSimpleName() + " of " + field.getEnclosingElement()
+                    + " cannot be read from the package of " + dto + " and has no visible getter, make it package private or add a getter");
+        }
+        return "object." + getter.getSimpleName() + "()";
+    }
+
+    private ExecutableElement findGetter(TypeElement dto, DeclaredType dtoType, VariableElement field, TypeMirror fieldType) {
+        String fieldName = field.getSimpleName().toString();
+        String capitalised = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(dto))) {
+            String name = method.getSimpleName().toString();
+            boolean getterName = name.equals("get" + capitalised) || (fieldType.getKind() == TypeKind.BOOLEAN && name.equals("is" + capitalised));
+            if (getterName && method.getParameters().isEmpty() && !method.getModifiers().contains(STATIC) && isVisibleFrom(dto, method)
+                    && types.isSameType(((ExecutableType) types.asMemberOf(dtoType, method)).getReturnType(), fieldType)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private boolean isVisibleFrom(TypeElement dto, Element member) {
+        if (member.getModifiers().contains(PRIVATE)) {
+            return false;
+        }
+        return member.getModifiers().contains(PUBLIC) || elements.getPackageOf(member).equals(elements.getPackageOf(dto));
+    }
+
+    private static String getSerializedName(VariableElement field) {
+        AnnotationMirror serializedName = getAnnotation(field, SERIALIZED_NAME);
+        if (serializedName == null) {
+            return null;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : serializedName.getElementValues().entrySet()) {
+            if (value.getKey().getSimpleName().contentEquals("value")) {
+                return (String) value.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationMirror getAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private void writeAccessor(TypeElement dto, List<DtoProperty> properties) {
+        String packageName = elements.getPackageOf(dto).getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(dto).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + ACCESSOR_SUFFIX;
+        String accessorName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(accessorName, dto);
+            try (Writer writer = file.openWriter()) {
+                writer.write(new AccessorSource(packageName, simpleName, dto.getQualifiedName().toString(), properties).toString());
+            }
+        } catch (IOException e) {
+            throw new InvalidDtoException(dto, "Cannot write " + accessorName + ": " + e.getMessage());
+        }
+        accessorNames.add(accessorName);
+        dtos.add(dto);
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX, dtos.toArray(new Element[0]));
+            try (Writer writer = file.openWriter()) {
+                for (String accessorName : accessorNames) {
+                    writer.write(accessorName);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + INDEX + ": " + e.getMessage());
+        }
+    }
+}
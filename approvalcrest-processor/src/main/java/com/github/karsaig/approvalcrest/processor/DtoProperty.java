@@ -0,0 +1,57 @@
+package com.github.karsaig.approvalcrest.processor;
+
+/**
+ * A field of an {@code ApprovedDto} class, with the source code the generated accessor describes and reads it with.
+ */
+final class DtoProperty {
+
+    private final String fieldName;
+    private final String serializedName;
+    private final int declaringClassLevel;
+    private final String typeLiteral;
+    private final String readExpression;
+
+    DtoProperty(String fieldName, String serializedName, int declaringClassLevel, String typeLiteral, String readExpression) {
+        this.fieldName = fieldName;
+        this.serializedName = serializedName;
+        this.declaringClassLevel = declaringClassLevel;
+        this.typeLiteral = typeLiteral;
+        this.readExpression = readExpression;
+    }
+
+    String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * @return the value of the field's {@code SerializedName} annotation or null if it has none
+     */
+    String getSerializedName() {
+        return serializedName;
+    }
+
+    String getJsonName() {
+        return serializedName == null ? fieldName : serializedName;
+    }
+
+    /**
+     * @return 0 if the field is declared by the annotated class, 1 if by its superclass and so on
+     */
+    int getDeclaringClassLevel() {
+        return declaringClassLevel;
+    }
+
+    /**
+     * @return the expression of the {@link java.lang.reflect.Type} of the field
+     */
+    String getTypeLiteral() {
+        return typeLiteral;
+    }
+
+    /**
+     * @return the expression reading the field of {@code object}
+     */
+    String getReadExpression() {
+        return readExpression;
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.karsaig.approvalcrest.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * Reports an {@code ApprovedDto} class the accessor cannot be generated for, on the element at fault.
+ */
+class InvalidDtoException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    final transient Element element;
+
+    InvalidDtoException(Element element, String message) {
+        super(message);
+        this.element = element;
+    }
+}
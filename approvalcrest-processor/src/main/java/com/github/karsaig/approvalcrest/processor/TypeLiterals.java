@@ -0,0 +1,89 @@
+package com.github.karsaig.approvalcrest.processor;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+
+/**
+ * Writes the source code of the {@link java.lang.reflect.Type} of a field: a class literal when the type has no type
+ * arguments, a Gson {@code TypeToken} otherwise.
+ */
+final class TypeLiterals {
+
+    private static final String TYPE_TOKEN = "com.google.gson.reflect.TypeToken";
+
+    private TypeLiterals() {
+    }
+
+    /**
+     * @param field the field, to report a type which cannot be written on
+     * @param type  the type of the field, with type variables resolved
+     * @return the expression of the {@link java.lang.reflect.Type}
+     */
+    static String of(Element field, TypeMirror type) {
+        if (hasTypeArguments(type)) {
+            return "new " + TYPE_TOKEN + "<" + source(field, type) + ">() {}.getType()";
+        }
+        return source(field, type) + ".class";
+    }
+
+    private static boolean hasTypeArguments(TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return hasTypeArguments(((ArrayType) type).getComponentType());
+            case DECLARED:
+                return !((DeclaredType) type).getTypeArguments().isEmpty();
+            default:
+                return false;
+        }
+    }
+
+    private static String source(Element field, TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+            case ARRAY:
+                return source(field, ((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED:
+                return declaredSource(field, (DeclaredType) type);
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    return "? extends " + source(field, wildcard.getExtendsBound());
+                }
+                if (wildcard.getSuperBound() != null) {
+                    return "? super " + source(field, wildcard.getSuperBound());
+                }
+                return "?";
+            default:
+                throw new InvalidDtoException(field, "The type " + type + " of " + field.getSimpleName() + " is not supported in @ApprovedDto classes");
+        }
+    }
+
+    private static String declaredSource(Element field, DeclaredType type) {
+        String name = ((TypeElement) type.asElement()).getQualifiedName().toString();
+        List<? extends TypeMirror> typeArguments = type.getTypeArguments();
+        if (typeArguments.isEmpty()) {
+            return name;
+        }
+        StringJoiner arguments = new StringJoiner(", ", name + "<", ">");
+        for (TypeMirror typeArgument : typeArguments) {
+            arguments.add(source(field, typeArgument));
+        }
+        return arguments.toString();
+    }
+}
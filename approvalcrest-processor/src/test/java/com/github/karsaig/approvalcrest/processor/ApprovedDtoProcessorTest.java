@@ -0,0 +1,230 @@
+package com.github.karsaig.approvalcrest.processor;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.karsaig.approvalcrest.ApprovedDto;
+import com.github.karsaig.approvalcrest.ApprovedDtoAccessor;
+import com.github.karsaig.approvalcrest.ApprovedDtoAccessor.Property;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Tests which compile sources with the {@link ApprovedDtoProcessor} and verify the accessors it generates.
+ */
+public class ApprovedDtoProcessorTest {
+
+    @TempDir
+    Path directory;
+
+    private ClassLoader classLoader;
+
+    @Test
+    public void shouldGenerateAccessorReadingFieldsInOrderOfTheirJsonNames() throws Exception {
+        write("dto/Bean.java", "package dto;\n" +
+                "@com.github.karsaig.approvalcrest.ApprovedDto\n" +
+                "public class Bean {\n" +
+                "    String name = \"bean\";\n" +
+                "    @com.google.gson.annotations.SerializedName(\"count\") int number = 3;\n" +
+                "    transient int skipped;\n" +
+                "    static int constant;\n" +
+                "}\n");
+
+        assertThat(compile(), is(""));
+
+        ApprovedDtoAccessor<Object> accessor = accessorOf("dto.Bean");
+        assertThat(fieldNames(accessor), contains("number", "name"));
+        assertThat(accessor.getProperties().get(0).getSerializedName(), is("count"));
+        assertThat(Arrays.asList(accessor.read(newInstance("dto.Bean"))), contains((Object) 3, "bean"));
+    }
+
+    @Test
+    public void shouldResolveFieldsOfSuperclassesAndReadPrivateFieldsThroughGetters() throws Exception {
+        write("base/Base.java", "package base;\n" +
+                "public class Base<T> {\n" +
+                "    private java.util.List<T> items = java.util.Collections.emptyList();\n" +
+                "    public java.util.List<T> getItems() {\n" +
+                "        return items;\n" +
+                "    }\n" +
+                "}\n");
+        write("dto/Bean.java", "package dto;\n" +
+                "@com.github.karsaig.approvalcrest.ApprovedDto\n" +
+                "public class Bean extends base.Base<String> {\n" +
+                "    private boolean active = true;\n" +
+                "    boolean isActive() {\n" +
+                "        return active;\n" +
+                "    }\n" +
+                "}\n");
+
+        assertThat(compile(), is(""));
+
+        ApprovedDtoAccessor<Object> accessor = accessorOf("dto.Bean");
+        Property items = accessor.getProperties().get(1);
+        assertThat(fieldNames(accessor), contains("active", "items"));
+        assertThat(items.getDeclaringClass().getName(), is("base.Base"));
+        assertThat(items.getType(), is(new TypeToken<List<String>>() {}.getType()));
+        assertThat(Arrays.asList(accessor.read(newInstance("dto.Bean"))), contains((Object) true, new ArrayList<>()));
+    }
+
+    @Test
+    public void shouldNameAccessorOfNestedClassAfterItsBinaryName() throws Exception {
+        write("dto/Outer.java", "package dto;\n" +
+                "public class Outer {\n" +
+                "    @com.github.karsaig.approvalcrest.ApprovedDto\n" +
+                "    public static class Inner {\n" +
+                "        long id;\n" +
+                "    }\n" +
+                "}\n");
+
+        assertThat(compile(), is(""));
+
+        assertThat(fieldNames(accessorOf("dto.Outer$Inner")), contains("id"));
+    }
+
+    @Test
+    public void shouldListGeneratedAccessorsInTheIndexTheMatchersLookFor() throws Exception {
+        write("dto/Bean.java", "package dto;\n" +
+                "@com.github.karsaig.approvalcrest.ApprovedDto\n" +
+                "public class Bean {\n" +
+                "    String name;\n" +
+                "}\n");
+        write("dto/Outer.java", "package dto;\n" +
+                "public class Outer {\n" +
+                "    @com.github.karsaig.approvalcrest.ApprovedDto\n" +
+                "    public static class Inner {\n" +
+                "        long id;\n" +
+                "    }\n" +
+                "}\n");
+
+        assertThat(compile(), is(""));
+
+        Path index = directory.resolve("classes").resolve(ApprovedDtoAccessor.INDEX);
+        assertThat(Files.readAllLines(index, StandardCharsets.UTF_8), containsInAnyOrder("dto.Bean_ApprovedDtoAccessor", "dto.Outer_Inner_ApprovedDtoAccessor"));
+    }
+
+    @Test
+    public void shouldNotWriteIndexWithoutAnnotatedClasses() throws Exception {
+        write("dto/Bean.java", "package dto;\n" +
+                "public class Bean {\n" +
+                "    String name;\n" +
+                "}\n");
+
+        assertThat(compile(), is(""));
+
+        assertThat(Files.exists(directory.resolve("classes").resolve(ApprovedDtoAccessor.INDEX)), is(false));
+    }
+
+    @Test
+    public void shouldReportPrivateFieldWithoutGetter() throws Exception {
+        write("dto/Bean.java", "package dto;\n" +
+                "@com.github.karsaig.approvalcrest.ApprovedDto\n" +
+                "public class Bean {\n" +
+                "    private String name;\n" +
+                "}\n");
+
+        assertThat(compile(), is("Field name of dto.Bean cannot be read from the package of dto.Bean and has no visible getter, make it package private or add a getter"));
+    }
+
+    @Test
+    public void shouldReportClassWithTypeParameters() throws Exception {
+        write("dto/Bean.java", "package dto;\n" +
+                "@com.github.karsaig.approvalcrest.ApprovedDto\n" +
+                "public class Bean<T> {\n" +
+                "    T value;\n" +
+                "}\n");
+
+        assertThat(compile(), is("@ApprovedDto is not supported on classes with type parameters"));
+    }
+
+    @Test
+    public void shouldReportDuplicateJsonNames() throws Exception {
+        write("dto/Bean.java", "package dto;\n" +
+                "@com.github.karsaig.approvalcrest.ApprovedDto\n" +
+                "public class Bean {\n" +
+                "    String name;\n" +
+                "    @com.google.gson.annotations.SerializedName(\"name\") String other;\n" +
+                "}\n");
+
+        assertThat(compile(), is("dto.Bean declares multiple JSON fields named name"));
+    }
+
+    private void write(String path, String source) throws IOException {
+        Path file = directory.resolve("src").resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the errors reported, empty if the sources compiled
+     */
+    private String compile() throws IOException, URISyntaxException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path classes = Files.createDirectories(directory.resolve("classes"));
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<File> sources;
+            try (Stream<Path> files = Files.walk(directory.resolve("src"))) {
+                sources = files.filter(Files::isRegularFile).map(Path::toFile).collect(Collectors.toList());
+            }
+            List<String> options = Arrays.asList("-d", classes.toString(), "-classpath", classpathOf(ApprovedDto.class) + File.pathSeparator + classpathOf(TypeToken.class));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(sources));
+            task.setProcessors(singletonList(new ApprovedDtoProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String classpathOf(Class<?> type) throws URISyntaxException {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    private Object newInstance(String className) throws Exception {
+        return loadClass(className).getConstructor().newInstance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ApprovedDtoAccessor<Object> accessorOf(String className) throws Exception {
+        return ApprovedDtoAccessor.of((Class<Object>) loadClass(className));
+    }
+
+    private Class<?> loadClass(String className) throws Exception {
+        if (classLoader == null) {
+            classLoader = new URLClassLoader(new URL[]{directory.resolve("classes").toUri().toURL()}, getClass().getClassLoader());
+        }
+        return Class.forName(className, true, classLoader);
+    }
+
+    private static List<String> fieldNames(ApprovedDtoAccessor<?> accessor) {
+        return accessor.getProperties().stream().map(Property::getFieldName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.karsaig.approvalcrest.processor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.karsaig.approvalcrest.matcher.DiagnosingCustomisableMatcher;
+import com.github.karsaig.approvalcrest.processor.types.ApprovedBean;
+
+/**
+ * Tests which verify the matchers write an {@link com.github.karsaig.approvalcrest.ApprovedDto} with the accessor the
+ * {@link ApprovedDtoProcessor} generated for it while compiling the test sources.
+ */
+public class BeanMatcherApprovedDtoTest {
+
+    @Test
+    public void shouldWriteApprovedDtoWithItsGeneratedAccessor() throws Exception {
+        int reads = ApprovedBean.ID_READS.get();
+
+        assertThat(bean("first", "a", "b"), new DiagnosingCustomisableMatcher<>(bean("first", "b", "a")));
+
+        assertThat(Class.forName(ApprovedBean.class.getName() + "_ApprovedDtoAccessor").getSuperclass().getSimpleName(), is("ApprovedDtoAccessor"));
+        assertThat(ApprovedBean.ID_READS.get(), greaterThan(reads));
+    }
+
+    @Test
+    public void shouldReportDifferenceInApprovedDto() {
+        AssertionError error = assertThrows(AssertionError.class,
+                () -> assertThat(bean("first", "a"), new DiagnosingCustomisableMatcher<>(bean("second", "a"))));
+
+        assertEquals("\n" +
+                "Expected: {\n" +
+                "  \"id\": 1,\n" +
+                "  \"name\": \"second\",\n" +
+                "  \"tags\": [\n" +
+                "    \"a\"\n" +
+                "  ]\n" +
+                "}\n" +
+                "     but: name\n" +
+                "Expected: second\n" +
+                "     got: first\n", error.getMessage());
+    }
+
+    @Test
+    public void shouldIgnoreFieldPatternOfApprovedDto() {
+        assertThat(bean("first", "a"), new DiagnosingCustomisableMatcher<>(bean("second", "a")).ignoring(is("name")));
+    }
+
+    @Test
+    public void shouldIgnoreTypeOfFieldOfApprovedDto() {
+        assertThat(bean("first", "a"), new DiagnosingCustomisableMatcher<>(bean("second", "a")).ignoring(String.class));
+    }
+
+    @Test
+    public void shouldIgnorePathOfApprovedDto() {
+        assertThat(bean("first", "a"), new DiagnosingCustomisableMatcher<>(bean("second", "a")).ignoring("name"));
+    }
+
+    private static ApprovedBean bean(String name, String... tags) {
+        return new ApprovedBean(1L, name, new LinkedHashSet<>(Arrays.asList(tags)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.karsaig.approvalcrest.processor.types;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.karsaig.approvalcrest.ApprovedDto;
+
+@ApprovedDto
+public class ApprovedBean {
+
+    /**
+     * Counts the calls of {@link #getId()}, which only the generated accessor reads the private id with.
+     */
+    public static final AtomicInteger ID_READS = new AtomicInteger();
+
+    String name;
+    Set<String> tags;
+    private long id;
+
+    public ApprovedBean(long id, String name, Set<String> tags) {
+        this.id = id;
+        this.name = name;
+        this.tags = tags;
+    }
+
+    public long getId() {
+        ID_READS.incrementAndGet();
+        return id;
+    }
+}
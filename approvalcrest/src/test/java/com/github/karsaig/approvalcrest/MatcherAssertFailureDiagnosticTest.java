@@ -16,7 +16,6 @@ import org.junit.Test;
 
 import java.util.Map;
 
-import static com.github.karsaig.approvalcrest.FieldsIgnorer.MARKER;
 import static com.github.karsaig.approvalcrest.MatcherAssert.assertThat;
 import static com.github.karsaig.approvalcrest.matcher.Matchers.sameBeanAs;
 import static com.github.karsaig.approvalcrest.matchers.ComparisonFailureMatchers.actual;
@@ -40,6 +39,11 @@ import static org.junit.Assert.fail;
 @SuppressWarnings("unchecked")
 public class MatcherAssertFailureDiagnosticTest {
 
+    /**
+     * The prefix Set and Map field names were once marked with to be sorted.
+     */
+    private static final String MARKER = "!_TO_BE_SORTED_!";
+
     @Test
     public void containsDiagnosticsWhenActualIsNull() {
         Bean expected = bean().string("value1").integer(1).build();
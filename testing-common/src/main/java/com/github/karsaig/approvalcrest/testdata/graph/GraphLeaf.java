@@ -0,0 +1,48 @@
+package com.github.karsaig.approvalcrest.testdata.graph;
+
+import java.util.Objects;
+
+/**
+ * Value object with equals and hashCode, used as set element and map value in the generated graphs.
+ */
+public class GraphLeaf {
+
+    private final long id;
+    private final String value;
+    private final int weight;
+
+    public GraphLeaf(long id, String value, int weight) {
+        this.id = id;
+        this.value = value;
+        this.weight = weight;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GraphLeaf graphLeaf = (GraphLeaf) o;
+        return id == graphLeaf.id && weight == graphLeaf.weight && Objects.equals(value, graphLeaf.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, value, weight);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.karsaig.approvalcrest.testdata.graph;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Node of the graphs built by {@link com.github.karsaig.approvalcrest.util.ObjectGraphGenerator}, every shape only
+ * fills the fields it needs. No equals and hashCode, nodes in sets are compared by identity.
+ */
+public class GraphNode {
+
+    private long id;
+    private String name;
+    private GraphNode next;
+    private List<GraphNode> children;
+    private Set<String> tags;
+    private Set<GraphLeaf> leaves;
+    private Map<String, GraphLeaf> attributes;
+
+    public GraphNode() {
+    }
+
+    public GraphNode(long id) {
+        this.id = id;
+        this.name = "node" + id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public GraphNode getNext() {
+        return next;
+    }
+
+    public void setNext(GraphNode next) {
+        this.next = next;
+    }
+
+    public List<GraphNode> getChildren() {
+        return children;
+    }
+
+    public void setChildren(List<GraphNode> children) {
+        this.children = children;
+    }
+
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(Set<String> tags) {
+        this.tags = tags;
+    }
+
+    public Set<GraphLeaf> getLeaves() {
+        return leaves;
+    }
+
+    public void setLeaves(Set<GraphLeaf> leaves) {
+        this.leaves = leaves;
+    }
+
+    public Map<String, GraphLeaf> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(Map<String, GraphLeaf> attributes) {
+        this.attributes = attributes;
+    }
+}
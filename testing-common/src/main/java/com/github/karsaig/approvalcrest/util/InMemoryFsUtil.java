@@ -57,11 +57,7 @@ public class InMemoryFsUtil {
     }
 
     public static void inMemoryUnixFsWithFileAttributeSupport(Consumer<InMemoryFsInfo> test) {
-        Configuration config = Configuration.unix()
-                .toBuilder()
-                .setAttributeViews("basic", "owner", "posix", "unix")
-                .build();
-        inMemoryFs(config, test);
+        inMemoryFs(unixConfigWithFileAttributeSupport(), test);
     }
 
     public static void inMemoryWindowsFs(Consumer<InMemoryFsInfo> test) {
@@ -72,17 +68,56 @@ public class InMemoryFsUtil {
     }
 
     public static void inMemoryFs(Configuration config, Consumer<InMemoryFsInfo> test) {
-        try (FileSystem fs = Jimfs.newFileSystem(config)) {
-            Path testPath = fs.getPath("test", "path");
-            Path resourcePath = fs.getPath("resources");
-            Path pathWithDirs = Files.createDirectories(testPath);
-            resourcePath = Files.createDirectories(resourcePath);
-            test.accept(new InMemoryFsInfo(fs, pathWithDirs, resourcePath));
+        InMemoryFsInfo imfsi = createInMemoryFs(config);
+        try {
+            test.accept(imfsi);
+        } finally {
+            close(imfsi);
+        }
+    }
+
+    public static void close(InMemoryFsInfo imfsi) {
+        try {
+            imfsi.getInMemoryFileSystem().close();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    public static InMemoryFsInfo createInMemoryUnixFsWithFileAttributeSupport() {
+        return createInMemoryFs(unixConfigWithFileAttributeSupport());
+    }
+
+    /**
+     * Creates an in memory file system with the same layout as {@link #inMemoryFs(Configuration, Consumer)}, but leaves
+     * closing it to the caller. Useful when the file system has to outlive a single callback, like benchmark states.
+     *
+     * @param config the Jimfs configuration of the file system
+     * @return the file system with its test and resource directories, to be closed with {@link #close(InMemoryFsInfo)}
+     */
+    public static InMemoryFsInfo createInMemoryFs(Configuration config) {
+        FileSystem fs = Jimfs.newFileSystem(config);
+        try {
+            Path testPath = Files.createDirectories(fs.getPath("test", "path"));
+            Path resourcePath = Files.createDirectories(fs.getPath("resources"));
+            return new InMemoryFsInfo(fs, testPath, resourcePath);
+        } catch (IOException | RuntimeException e) {
+            try {
+                fs.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+        }
+    }
+
+    private static Configuration unixConfigWithFileAttributeSupport() {
+        return Configuration.unix()
+                .toBuilder()
+                .setAttributeViews("basic", "owner", "posix", "unix")
+                .build();
+    }
+
     public static List<InMemoryFiles> getFiles(InMemoryFsInfo imfsi) {
         return getFiles(imfsi.getInMemoryFileSystem());
     }
@@ -0,0 +1,216 @@
+package com.github.karsaig.approvalcrest.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.github.karsaig.approvalcrest.testdata.graph.GraphLeaf;
+import com.github.karsaig.approvalcrest.testdata.graph.GraphNode;
+
+/**
+ * Seeded generator of large {@link GraphNode} graphs for stress tests and benchmarks. The same seed and the same calls
+ * always build the same graph. Graphs are built with loops, so a chain of a million nodes doesn't need a deep stack to
+ * be built, only to be traversed.
+ */
+public class ObjectGraphGenerator {
+
+    private static final int MIN_WORD_LENGTH = 3;
+    private static final int MAX_WORD_LENGTH = 10;
+
+    private final Random random;
+    private long nextId;
+
+    public ObjectGraphGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Returns the head of a list of nodes linked by {@link GraphNode#getNext()}.
+     *
+     * @param depth number of nodes in the chain
+     * @return the first node
+     */
+    public GraphNode chain(int depth) {
+        GraphNode head = node();
+        GraphNode current = head;
+        for (int i = 1; i < depth; ++i) {
+            GraphNode next = node();
+            current.setNext(next);
+            current = next;
+        }
+        return head;
+    }
+
+    /**
+     * Returns a node with the given number of children.
+     *
+     * @param width number of children
+     * @return the parent node
+     */
+    public GraphNode wide(int width) {
+        GraphNode root = node();
+        root.setChildren(nodes(width));
+        return root;
+    }
+
+    /**
+     * Returns a node with the given number of children, each with a {@link HashMap} of random keys.
+     *
+     * @param width           number of children
+     * @param entriesPerMap   number of entries in the map of each child
+     * @return the parent node
+     */
+    public GraphNode mapHeavy(int width, int entriesPerMap) {
+        GraphNode root = wide(width);
+        for (GraphNode child : root.getChildren()) {
+            Map<String, GraphLeaf> attributes = new HashMap<>();
+            while (attributes.size() < entriesPerMap) {
+                attributes.put(word(), leaf());
+            }
+            child.setAttributes(attributes);
+        }
+        return root;
+    }
+
+    /**
+     * Returns a node with the given number of children, each with a {@link HashSet} of random Strings and one of
+     * {@link GraphLeaf}s.
+     *
+     * @param width           number of children
+     * @param elementsPerSet  number of elements in each set
+     * @return the parent node
+     */
+    public GraphNode setHeavy(int width, int elementsPerSet) {
+        GraphNode root = wide(width);
+        for (GraphNode child : root.getChildren()) {
+            Set<String> tags = new HashSet<>();
+            while (tags.size() < elementsPerSet) {
+                tags.add(word());
+            }
+            child.setTags(tags);
+            Set<GraphLeaf> leaves = new HashSet<>();
+            for (int i = 0; i < elementsPerSet; ++i) {
+                leaves.add(leaf());
+            }
+            child.setLeaves(leaves);
+        }
+        return root;
+    }
+
+    /**
+     * Returns the root of a directed acyclic graph where nodes are shared by several parents. The nodes form a random
+     * tree through {@link GraphNode#getChildren()}, and every node gets extra children from the level of the tree below
+     * it, up to {@code fanOut} children, as long as they have fewer than {@code maxParents} parents.
+     * <p>
+     * As children are always one level below their parents, every path from the root to a node is as long as the depth
+     * of the node, which is logarithmic in the size for a random tree. So the number of paths to a node, at most
+     * {@code maxParents} to the power of its depth, only grows polynomially with the size.
+     *
+     * @param size       number of nodes
+     * @param fanOut     maximum number of children of a node
+     * @param maxParents maximum number of parents of a node
+     * @return the root node
+     */
+    public GraphNode sharedDag(int size, int fanOut, int maxParents) {
+        List<GraphNode> nodes = tree(size, fanOut);
+        long firstId = nodes.get(0).getId();
+        int[] depths = new int[size];
+        int[] parentCounts = new int[size];
+        List<List<GraphNode>> levels = new ArrayList<>();
+        for (GraphNode node : nodes) {
+            int depth = depths[(int) (node.getId() - firstId)];
+            if (levels.size() == depth) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(depth).add(node);
+            for (GraphNode child : node.getChildren()) {
+                depths[(int) (child.getId() - firstId)] = depth + 1;
+                parentCounts[(int) (child.getId() - firstId)] = 1;
+            }
+        }
+        for (int depth = 0; depth < levels.size() - 1; ++depth) {
+            List<GraphNode> below = levels.get(depth + 1);
+            for (GraphNode node : levels.get(depth)) {
+                for (int tries = fanOut - node.getChildren().size(); tries > 0; --tries) {
+                    GraphNode child = below.get(random.nextInt(below.size()));
+                    int childIndex = (int) (child.getId() - firstId);
+                    if (parentCounts[childIndex] < maxParents && !node.getChildren().contains(child)) {
+                        node.getChildren().add(child);
+                        ++parentCounts[childIndex];
+                    }
+                }
+            }
+        }
+        return nodes.get(0);
+    }
+
+    /**
+     * Returns the root of a graph with cycles. The nodes form a tree through {@link GraphNode#getChildren()}, and
+     * {@link GraphNode#getNext()} of every node except the root points back to a random node created before it.
+     *
+     * @param size   number of nodes
+     * @param fanOut maximum number of children of a node
+     * @return the root node
+     */
+    public GraphNode cyclic(int size, int fanOut) {
+        List<GraphNode> nodes = tree(size, fanOut);
+        for (int i = 1; i < size; ++i) {
+            nodes.get(i).setNext(nodes.get(random.nextInt(i)));
+        }
+        return nodes.get(0);
+    }
+
+    /**
+     * Returns the nodes of a random tree in creation order, the first is the root and every parent was created before
+     * its children.
+     */
+    private List<GraphNode> tree(int size, int fanOut) {
+        List<GraphNode> nodes = new ArrayList<>(size);
+        List<GraphNode> open = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            GraphNode node = node();
+            node.setChildren(new ArrayList<>());
+            if (!open.isEmpty()) {
+                int parentIndex = random.nextInt(open.size());
+                GraphNode parent = open.get(parentIndex);
+                parent.getChildren().add(node);
+                if (parent.getChildren().size() == fanOut) {
+                    open.set(parentIndex, open.get(open.size() - 1));
+                    open.remove(open.size() - 1);
+                }
+            }
+            open.add(node);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private List<GraphNode> nodes(int count) {
+        List<GraphNode> result = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            result.add(node());
+        }
+        return result;
+    }
+
+    private GraphNode node() {
+        return new GraphNode(nextId++);
+    }
+
+    private GraphLeaf leaf() {
+        return new GraphLeaf(nextId++, word(), random.nextInt(1000));
+    }
+
+    private String word() {
+        int length = MIN_WORD_LENGTH + random.nextInt(MAX_WORD_LENGTH - MIN_WORD_LENGTH + 1);
+        char[] result = new char[length];
+        for (int i = 0; i < length; ++i) {
+            result[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(result);
+    }
+}
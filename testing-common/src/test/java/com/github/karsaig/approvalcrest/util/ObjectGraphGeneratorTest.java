@@ -0,0 +1,123 @@
+package com.github.karsaig.approvalcrest.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.karsaig.approvalcrest.testdata.graph.GraphNode;
+
+/**
+ * Tests which verify the shapes of the graphs with shared nodes and cycles built by {@link ObjectGraphGenerator}.
+ */
+public class ObjectGraphGeneratorTest {
+
+    private static final long SEED = 42L;
+    private static final int SIZE = 10_000;
+    private static final int FAN_OUT = 4;
+    private static final int MAX_PARENTS = 2;
+
+    @Test
+    public void shouldBuildTheSameSharedDagFromTheSameSeed() {
+        GraphNode first = new ObjectGraphGenerator(SEED).sharedDag(SIZE, FAN_OUT, MAX_PARENTS);
+        GraphNode second = new ObjectGraphGenerator(SEED).sharedDag(SIZE, FAN_OUT, MAX_PARENTS);
+
+        assertThat(childIds(first), is(childIds(second)));
+    }
+
+    @Test
+    public void shouldShareNodesOfSharedDagWithBoundedFanIn() {
+        GraphNode root = new ObjectGraphGenerator(SEED).sharedDag(SIZE, FAN_OUT, MAX_PARENTS);
+
+        Map<GraphNode, Integer> parentCounts = new IdentityHashMap<>();
+        for (GraphNode node : levels(root).keySet()) {
+            assertThat(node.getChildren().size(), lessThanOrEqualTo(FAN_OUT));
+            for (GraphNode child : node.getChildren()) {
+                parentCounts.merge(child, 1, Integer::sum);
+            }
+        }
+
+        assertThat(levels(root).size(), is(SIZE));
+        assertThat(parentCounts.values(), everyItem(lessThanOrEqualTo(MAX_PARENTS)));
+        assertThat(parentCounts.values(), hasItem(MAX_PARENTS));
+    }
+
+    @Test
+    public void shouldKeepTheNumberOfPathsOfSharedDagPolynomial() {
+        GraphNode root = new ObjectGraphGenerator(SEED).sharedDag(SIZE, FAN_OUT, MAX_PARENTS);
+        Map<GraphNode, Integer> levels = levels(root);
+
+        Map<GraphNode, Long> pathCounts = new IdentityHashMap<>();
+        pathCounts.put(root, 1L);
+        long paths = 0;
+        for (GraphNode node : levels.keySet()) {
+            long pathsToNode = pathCounts.get(node);
+            paths += pathsToNode;
+            for (GraphNode child : node.getChildren()) {
+                assertThat(levels.get(child), is(levels.get(node) + 1));
+                pathCounts.merge(child, pathsToNode, Long::sum);
+            }
+        }
+
+        assertThat(paths, lessThan((long) SIZE * SIZE));
+    }
+
+    @Test
+    public void shouldPointEveryNodeOfCyclicGraphButTheRootBackToAnEarlierNode() {
+        GraphNode root = new ObjectGraphGenerator(SEED).cyclic(SIZE, FAN_OUT);
+
+        Map<GraphNode, Integer> levels = levels(root);
+
+        assertThat(levels.size(), is(SIZE));
+        for (GraphNode node : levels.keySet()) {
+            if (node != root) {
+                assertThat(node.getNext().getId(), lessThan(node.getId()));
+            }
+        }
+        assertThat(root.getChildren().get(0).getNext() == root, is(true));
+    }
+
+    /**
+     * Returns the nodes reachable through {@link GraphNode#getChildren()} in breadth first order, with their distance
+     * from the root.
+     */
+    private static Map<GraphNode, Integer> levels(GraphNode root) {
+        Map<GraphNode, Integer> levels = new LinkedHashMap<>();
+        List<GraphNode> queue = new ArrayList<>();
+        levels.put(root, 0);
+        queue.add(root);
+        for (int i = 0; i < queue.size(); ++i) {
+            GraphNode node = queue.get(i);
+            for (GraphNode child : node.getChildren()) {
+                if (!levels.containsKey(child)) {
+                    levels.put(child, levels.get(node) + 1);
+                    queue.add(child);
+                }
+            }
+        }
+        return levels;
+    }
+
+    private static List<List<Long>> childIds(GraphNode root) {
+        List<List<Long>> result = new ArrayList<>();
+        for (GraphNode node : levels(root).keySet()) {
+            List<Long> ids = new ArrayList<>();
+            ids.add(node.getId());
+            for (GraphNode child : node.getChildren()) {
+                ids.add(child.getId());
+            }
+            result.add(ids);
+        }
+        return result;
+    }
+}